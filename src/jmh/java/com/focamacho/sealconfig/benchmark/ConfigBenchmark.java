@@ -0,0 +1,84 @@
+package com.focamacho.sealconfig.benchmark;
+
+import com.focamacho.sealconfig.SealConfig;
+import com.focamacho.sealconfig.parser.JanksonParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load, reload and save of a single config
+ * file for each config shape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigBenchmark {
+
+    @Param({"flat", "deep", "map", "list"})
+    public String shape;
+
+    private Class<?> configClass;
+    private File directory;
+    private File configFile;
+    private File cacheDirectory;
+    private SealConfig sealConfig;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        configClass = ConfigShapes.byName(shape);
+        directory = Files.createTempDirectory("sealconfig-benchmark").toFile();
+        configFile = new File(directory, shape + ".json5");
+
+        //Creates the file, so the benchmarks load an existing config
+        sealConfig = new SealConfig();
+        sealConfig.getConfig(configFile, configClass);
+
+        //Creates the binary cache of the file
+        cacheDirectory = new File(directory, "cache");
+        new SealConfig(new JanksonParser().setCacheDirectory(cacheDirectory)).getConfig(configFile, configClass);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(directory);
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if(files != null) for(File child : files) delete(child);
+        file.delete();
+    }
+
+    @Benchmark
+    public Object coldLoad() {
+        return new SealConfig().getConfig(configFile, configClass);
+    }
+
+    @Benchmark
+    public Object cachedColdLoad() {
+        return new SealConfig(new JanksonParser().setCacheDirectory(cacheDirectory)).getConfig(configFile, configClass);
+    }
+
+    @Benchmark
+    public Object warmLoad() {
+        return sealConfig.getConfig(configFile, configClass);
+    }
+
+    @Benchmark
+    public void reload() {
+        sealConfig.reload();
+    }
+
+    @Benchmark
+    public void saveAll() {
+        sealConfig.save();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.focamacho.sealconfig.benchmark;
+
+import blue.endless.jankson.api.annotation.Comment;
+import com.focamacho.sealconfig.annotation.ConfigCategory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Config classes with the different shapes
+ * used by the benchmarks.
+ */
+public class ConfigShapes {
+
+    public static final int COLLECTION_SIZE = 10000;
+
+    public static Class<?> byName(String shape) {
+        switch(shape) {
+            case "flat": return Flat.class;
+            case "deep": return Deep.class;
+            case "map": return BigMap.class;
+            case "list": return BigList.class;
+            default: throw new IllegalArgumentException("Unknown config shape: " + shape);
+        }
+    }
+
+    public static class Flat {
+        @Comment("A string value.")
+        public String name = "Focamacho";
+        @Comment("A number value.")
+        public int number = 10;
+        @Comment("A decimal value.")
+        public double decimal = 0.5;
+        @Comment("A boolean value.")
+        public boolean enabled = true;
+        public long big = 1L << 40;
+        public String a = "a", b = "b", c = "c", d = "d", e = "e", f = "f", g = "g", h = "h";
+        public int i0 = 0, i1 = 1, i2 = 2, i3 = 3, i4 = 4, i5 = 5, i6 = 6, i7 = 7;
+        public boolean b0 = false, b1 = true, b2 = false, b3 = true;
+    }
+
+    public static class Deep {
+        @Comment("The first category.")
+        public Level1 first = new Level1();
+        @Comment("The second category.")
+        public Level1 second = new Level1();
+        public int number = 1;
+
+        @ConfigCategory
+        public static class Level1 {
+            @Comment("A nested category.")
+            public Level2 nested = new Level2();
+            public String value = "level1";
+            public int number = 1;
+        }
+
+        @ConfigCategory
+        public static class Level2 {
+            @Comment("A nested category.")
+            public Level3 nested = new Level3();
+            public String value = "level2";
+            public int number = 2;
+        }
+
+        @ConfigCategory
+        public static class Level3 {
+            @Comment("A nested category.")
+            public Level4 nested = new Level4();
+            public String value = "level3";
+            public int number = 3;
+        }
+
+        @ConfigCategory
+        public static class Level4 {
+            @Comment("The deepest value.")
+            public String value = "level4";
+            public int number = 4;
+            public boolean enabled = true;
+        }
+    }
+
+    public static class BigMap {
+        @Comment("A big map of values.")
+        public Map<String, Integer> values = new LinkedHashMap<>();
+
+        public BigMap() {
+            for(int i = 0; i < COLLECTION_SIZE; i++) values.put("key" + i, i);
+        }
+    }
+
+    public static class BigList {
+        @Comment("A big list of values.")
+        public List<Integer> values = new ArrayList<>();
+
+        public BigList() {
+            for(int i = 0; i < COLLECTION_SIZE; i++) values.add(i);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.focamacho.sealconfig.benchmark;
+
+import com.focamacho.sealconfig.ConfigClassInfo;
+import com.focamacho.sealconfig.ConfigClassInfo.FieldInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copy of every field of a config object, as done on
+ * reload, using reflection and the cached accessors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessBenchmark {
+
+    private final ConfigShapes.Flat from = new ConfigShapes.Flat();
+    private final ConfigShapes.Flat to = new ConfigShapes.Flat();
+    private List<FieldInfo> fields;
+    private Field[] reflectiveFields;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fields = ConfigClassInfo.of(ConfigShapes.Flat.class).getFields();
+        reflectiveFields = ConfigShapes.Flat.class.getFields();
+    }
+
+    @Benchmark
+    public Object reflective() throws IllegalAccessException {
+        for(Field field : reflectiveFields) field.set(to, field.get(from));
+        return to;
+    }
+
+    @Benchmark
+    public Object accessors() throws IllegalAccessException {
+        for(FieldInfo field : fields) field.copy(from, to);
+        return to;
+    }
+
+}
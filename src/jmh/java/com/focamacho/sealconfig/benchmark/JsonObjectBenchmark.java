@@ -0,0 +1,95 @@
+package com.focamacho.sealconfig.benchmark;
+
+import blue.endless.jankson.api.element.JsonElement;
+import blue.endless.jankson.api.element.JsonObject;
+import blue.endless.jankson.api.element.JsonPrimitive;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key lookups and replacements on
+ * JsonObjects of different sizes.
+ *
+ * The "linear" lookup runs the same operations with the
+ * case-insensitive scan over the entries the JsonObject
+ * used before it had an index, as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonObjectBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param({"indexed", "linear"})
+    public String lookup;
+
+    private JsonObject object;
+    private List<Map.Entry<String, JsonElement>> entries;
+    private String[] keys;
+    private JsonElement value;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        object = new JsonObject();
+        entries = new ArrayList<>();
+        keys = new String[size];
+        for(int i = 0; i < size; i++) {
+            keys[i] = "Key" + i;
+            object.put(keys[i], new JsonPrimitive(i));
+            entries.add(new AbstractMap.SimpleEntry<>(keys[i], new JsonPrimitive(i)));
+        }
+        value = new JsonPrimitive(-1);
+    }
+
+    private String nextKey() {
+        if(++next >= keys.length) next = 0;
+        return keys[next];
+    }
+
+    /**
+     * Finds an entry the way the JsonObject did before it
+     * had an index.
+     */
+    private Map.Entry<String, JsonElement> find(String key) {
+        for(Map.Entry<String, JsonElement> entry : entries) {
+            if(entry.getKey().equalsIgnoreCase(key)) return entry;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public JsonElement get() {
+        if(lookup.equals("linear")) {
+            Map.Entry<String, JsonElement> entry = find(nextKey());
+            return entry == null ? null : entry.getValue();
+        }
+        return object.get(nextKey());
+    }
+
+    @Benchmark
+    public boolean containsKeyIgnoringCase() {
+        if(lookup.equals("linear")) return find(nextKey().toLowerCase()) != null;
+        return object.containsKey(nextKey().toLowerCase());
+    }
+
+    @Benchmark
+    public JsonElement put() {
+        if(lookup.equals("linear")) {
+            Map.Entry<String, JsonElement> entry = find(nextKey());
+            return entry == null ? null : entry.setValue(value);
+        }
+        return object.put(nextKey(), value);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.focamacho.sealconfig.benchmark;
+
+import com.focamacho.sealconfig.ConfigParser;
+import com.focamacho.sealconfig.SealConfig;
+import com.focamacho.sealconfig.parser.JanksonParser;
+import com.focamacho.sealconfig.parser.Json5Parser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold load of a single config file with each
+ * of the built-in parsers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"flat", "deep", "map", "list"})
+    public String shape;
+
+    @Param({"jankson", "json5"})
+    public String parser;
+
+    private Class<?> configClass;
+    private File directory;
+    private File configFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        configClass = ConfigShapes.byName(shape);
+        directory = Files.createTempDirectory("sealconfig-benchmark").toFile();
+        configFile = new File(directory, shape + ".json5");
+
+        //Creates the file, so the benchmark loads an existing config
+        new SealConfig().getConfig(configFile, configClass);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        configFile.delete();
+        directory.delete();
+    }
+
+    private ConfigParser createParser() {
+        return parser.equals("json5") ? new Json5Parser() : new JanksonParser();
+    }
+
+    @Benchmark
+    public Object coldLoad() {
+        return new SealConfig(createParser()).getConfig(configFile, configClass);
+    }
+
+}
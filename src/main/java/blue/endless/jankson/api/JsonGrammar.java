@@ -61,14 +61,54 @@ public class JsonGrammar {
             .bareSpecialNumerics(true)
             .build();
 
-    protected boolean comments = true;
-    protected boolean printWhitespace = true;
-    protected boolean printCommas = true;
-    protected boolean printTrailingCommas = false;
-    protected boolean bareSpecialNumerics = false;
-    protected boolean bareRootObject = false;
-    protected boolean printUnquotedKeys = false;
-    protected int newLinesAmount = 0;
+    /**
+     * Grammars for each combination of comments, whitespace and amount of
+     * line breaks, shared by the calls that don't take a grammar. See
+     * {@link #of(boolean, boolean, int)}.
+     */
+    private static final int CACHED_NEW_LINES = 4;
+    private static final JsonGrammar[] CACHED = new JsonGrammar[CACHED_NEW_LINES * 4];
+
+    static {
+        for(int newLines = 0; newLines < CACHED_NEW_LINES; newLines++) {
+            for(int i = 0; i < 4; i++) {
+                CACHED[newLines * 4 + i] = builder().withComments((i & 2) != 0).printWhitespace((i & 1) != 0, newLines).build();
+            }
+        }
+    }
+
+    /**
+     * The grammar of the config files written by SealConfig: comments,
+     * whitespace and an empty line before each commented value.
+     */
+    public static final JsonGrammar SEALCONFIG = of(true, true, 2);
+
+    protected final boolean comments;
+    protected final boolean printWhitespace;
+    protected final boolean printCommas;
+    protected final boolean printTrailingCommas;
+    protected final boolean bareSpecialNumerics;
+    protected final boolean bareRootObject;
+    protected final boolean printUnquotedKeys;
+    protected final int newLinesAmount;
+
+    /**
+     * Creates a grammar with the default settings.
+     */
+    public JsonGrammar() {
+        this(new Builder());
+    }
+
+    private JsonGrammar(Builder builder) {
+        this.comments = builder.comments;
+        this.printWhitespace = builder.printWhitespace;
+        this.printCommas = builder.printCommas;
+        this.printTrailingCommas = builder.printTrailingCommas;
+        this.bareSpecialNumerics = builder.bareSpecialNumerics;
+        this.bareRootObject = builder.bareRootObject;
+        this.printUnquotedKeys = builder.printUnquotedKeys;
+        this.newLinesAmount = builder.newLinesAmount;
+    }
 
     public boolean hasComments() { return comments; }
     public boolean shouldOutputWhitespace() { return printWhitespace; }
@@ -80,19 +120,38 @@ public class JsonGrammar {
     public int getNewLinesAmount() { return newLinesAmount; }
 
 
+    /**
+     * Returns a grammar with the given comments and whitespace settings, and
+     * the defaults for everything else. Grammars can't be changed once built,
+     * so the common ones are created only once and shared.
+     */
+    public static JsonGrammar of(boolean comments, boolean whitespace, int newLinesAmount) {
+        if (newLinesAmount < 0 || newLinesAmount >= CACHED_NEW_LINES) {
+            return builder().withComments(comments).printWhitespace(whitespace, newLinesAmount).build();
+        }
+        return CACHED[newLinesAmount * 4 + (comments ? 2 : 0) + (whitespace ? 1 : 0)];
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
     public static class Builder {
-        private JsonGrammar grammar = new JsonGrammar();
+        private boolean comments = true;
+        private boolean printWhitespace = true;
+        private boolean printCommas = true;
+        private boolean printTrailingCommas = false;
+        private boolean bareSpecialNumerics = false;
+        private boolean bareRootObject = false;
+        private boolean printUnquotedKeys = false;
+        private int newLinesAmount = 0;
 
         /**
          * Indicates that comments should be accepted as input, and preserved in output.
          * Defaults to true.
          */
         public Builder withComments(boolean comments) {
-            grammar.comments = comments;
+            this.comments = comments;
             return this;
         }
 
@@ -102,13 +161,13 @@ public class JsonGrammar {
          * to true.
          */
         public Builder printWhitespace(boolean whitespace) {
-            grammar.printWhitespace = whitespace;
+            this.printWhitespace = whitespace;
             return this;
         }
 
         public Builder printWhitespace(boolean whitespace, int amount) {
-            grammar.printWhitespace = whitespace;
-            grammar.newLinesAmount = amount;
+            this.printWhitespace = whitespace;
+            this.newLinesAmount = amount;
             return this;
         }
 
@@ -118,7 +177,7 @@ public class JsonGrammar {
          * to true.
          */
         public Builder printCommas(boolean commas) {
-            grammar.printCommas = commas;
+            this.printCommas = commas;
             return this;
         }
 
@@ -128,7 +187,7 @@ public class JsonGrammar {
          * to false.
          */
         public Builder printTrailingCommas(boolean trailing) {
-            grammar.printTrailingCommas = trailing;
+            this.printTrailingCommas = trailing;
             return this;
         }
 
@@ -137,7 +196,7 @@ public class JsonGrammar {
          * will get picked up by Gson and HJSON as-is, and apparently Jackson will read them as unquoted strings.
          */
         public Builder bareSpecialNumerics(boolean bare) {
-            grammar.bareSpecialNumerics = bare;
+            this.bareSpecialNumerics = bare;
             return this;
         }
 
@@ -147,20 +206,21 @@ public class JsonGrammar {
          * in the builder for the Jankson object that will load them.
          */
         public Builder bareRootObject(boolean bare) {
-            grammar.bareRootObject = bare;
+            this.bareRootObject = bare;
             return this;
         }
 
         public Builder printUnquotedKeys(boolean unquoted) {
-            grammar.printUnquotedKeys = unquoted;
+            this.printUnquotedKeys = unquoted;
             return this;
         }
 
         /**
-         * Finalizes this JsonGrammar and returns it.
+         * Creates a JsonGrammar with the current settings. Changing
+         * the builder afterwards doesn't change the built grammars.
          */
         public JsonGrammar build() {
-            return grammar;
+            return new JsonGrammar(this);
         }
     }
 }
\ No newline at end of file
@@ -33,33 +33,34 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.*;
-import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 /**
  * Class modified for allowing the break of multiple lines
  * between each JSON value.
  */
 public class JsonObject extends JsonElement implements Map<String, JsonElement> {
-    /** This pattern matches JsonObject keys that are permitted to appear unquoted */
-    private static final Predicate<String> CAN_BE_UNQUOTED = Pattern.compile("^[a-zA-Z0-9]+$").asPredicate();
+    /** Indentation for each depth, so it's not written one tab at a time */
+    private static final String[] INDENTS = new String[32];
+
+    static {
+        INDENTS[0] = "";
+        for(int i = 1; i < INDENTS.length; i++) INDENTS[i] = INDENTS[i - 1] + '\t';
+    }
+
     @SuppressWarnings("deprecation")
     protected Marshaller marshaller = blue.endless.jankson.impl.MarshallerImpl.getFallback();
     private List<Entry> entries = new ArrayList<>();
+    /** Case-insensitive index over {@link #entries}, keyed by {@link #indexKey(String)} */
+    private Map<String, Entry> index = new HashMap<>();
 
     /**
      * If there is an entry at this key, and that entry is a json object, return it. Otherwise returns null.
      */
     @Nullable
     public JsonObject getObject(@Nonnull String name) {
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase(name)) {
-                if (entry.value instanceof JsonObject) {
-                    return (JsonObject)entry.value;
-                } else {
-                    return null;
-                }
-            }
+        Entry entry = index.get(indexKey(name));
+        if (entry != null && entry.value instanceof JsonObject) {
+            return (JsonObject)entry.value;
         }
 
         return null;
@@ -70,13 +71,12 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
      * doesn't. Returns the old value mapped to this key if there was one.
      */
     public JsonElement put(@Nonnull String key, @Nonnull JsonElement elem, @Nullable String comment) {
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase(key)) {
-                JsonElement result = entry.value;
-                entry.value = elem;
-                entry.setComment(comment);
-                return result;
-            }
+        Entry existing = index.get(indexKey(key));
+        if (existing != null) {
+            JsonElement result = existing.value;
+            existing.value = elem;
+            existing.setComment(comment);
+            return result;
         }
 
         //If we reached here, there's no existing mapping, so make one.
@@ -86,16 +86,15 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
         entry.key = key;
         entry.value = elem;
         entry.setComment(comment);
-        entries.add(entry);
+        addEntry(entry);
         return null;
     }
 
     @Nonnull
     public JsonElement putDefault(@Nonnull String key, @Nonnull JsonElement elem, @Nullable String comment) {
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase(key)) {
-                return entry.value;
-            }
+        Entry existing = index.get(indexKey(key));
+        if (existing != null) {
+            return existing.value;
         }
 
         //If we reached here, there's no existing mapping, so make one.
@@ -103,7 +102,7 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
         entry.key = key;
         entry.value = elem;
         entry.setComment(comment);
-        entries.add(entry);
+        addEntry(entry);
         return elem;
     }
 
@@ -117,10 +116,9 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
     /** May return null if the existing object can't be marshalled to the target class */
     @Nullable
     public <T> T putDefault(@Nonnull String key, @Nonnull T elem, Class<? extends T> clazz, @Nullable String comment) {
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase(key)) {
-                return (T) marshaller.marshall(clazz, entry.value);
-            }
+        Entry existing = index.get(indexKey(key));
+        if (existing != null) {
+            return (T) marshaller.marshall(clazz, existing.value);
         }
 
         //If we reached here, there's no existing mapping, so make one.
@@ -129,7 +127,7 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
         entry.value = marshaller.serialize(elem);
         if (entry.value==null) entry.value = JsonNull.INSTANCE;
         entry.setComment(comment);
-        entries.add(entry);
+        addEntry(entry);
         return elem;
     }
 
@@ -183,33 +181,22 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
      */
     @Nullable
     public String getComment(@Nonnull String name) {
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase(name)) {
-                return entry.getComment();
-            }
-        }
-
-        return null;
+        Entry entry = index.get(indexKey(name));
+        return entry != null ? entry.getComment() : null;
     }
 
     public void setComment(@Nonnull String name, @Nullable String comment) {
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase(name)) {
-                entry.setComment(comment);
-                return;
-            }
-        }
+        Entry entry = index.get(indexKey(name));
+        if (entry != null) entry.setComment(comment);
     }
 
     @Override
     public String toJson(boolean comments, boolean newlines, int depth) {
-        JsonGrammar grammar = JsonGrammar.builder().withComments(comments).printWhitespace(newlines).build();
-        return toJson(grammar, depth);
+        return toJson(JsonGrammar.of(comments, newlines, 0), depth);
     }
 
     public String toJson(boolean comments, boolean newlines, int depth, int newLinesAmount) {
-        JsonGrammar grammar = JsonGrammar.builder().withComments(comments).printWhitespace(newlines, newLinesAmount).build();
-        return toJson(grammar, depth);
+        return toJson(JsonGrammar.of(comments, newlines, newLinesAmount), depth);
     }
 
     @Override
@@ -233,26 +220,21 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
             Entry entry = entries.get(i);
 
             if (grammar.shouldOutputWhitespace()) {
-                if(i > 0 && entry.getComment() != null && !entry.getComment().trim().isEmpty()) for(int j = 1; j < grammar.getNewLinesAmount(); j++) w.append('\n');
-                for(int j=0; j<nextDepth; j++) {
-                    w.append("\t");
-                }
+                //Blank comments are stored as null
+                if(i > 0 && entry.getComment() != null) for(int j = 1; j < grammar.getNewLinesAmount(); j++) w.append('\n');
+                indent(w, nextDepth);
             }
 
             CommentSerializer.print(w, entry.getComment(), effectiveDepth, grammar);
 
-            boolean quoted = !grammar.shouldUnquoteKeys();
-
             //If it can't be unquoted, quote it anyway
-            if (!CAN_BE_UNQUOTED.test(entry.key)) {
-                quoted = true;
-            }
+            boolean quoted = !grammar.shouldUnquoteKeys() || !entry.canBeUnquoted;
 
             if (quoted) w.append("\"");
             w.append(entry.key);
             if (quoted) w.append("\"");
             w.append(": ");
-            w.append(entry.value.toJson(grammar, depth+1));
+            entry.value.toJson(w, grammar, depth+1);
 
             if (grammar.shouldPrintCommas()) {
                 if (i<entries.size()-1 || grammar.isTrailingCommas()) {
@@ -271,9 +253,7 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
         if (!skipBraces) {
             if (entries.size()>0) {
                 if (grammar.shouldOutputWhitespace()) {
-                    for(int j=0; j<effectiveDepth; j++) {
-                        w.append("\t");
-                    }
+                    indent(w, effectiveDepth);
                 } else {
                     w.append(' ');
                 }
@@ -283,6 +263,24 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
         }
     }
 
+    private static void indent(Writer w, int depth) throws IOException {
+        for(; depth >= INDENTS.length; depth -= INDENTS.length - 1) w.write(INDENTS[INDENTS.length - 1]);
+        if (depth > 0) w.write(INDENTS[depth]);
+    }
+
+    /**
+     * Checks if a key is permitted to appear unquoted, being made only of
+     * ascii letters and digits.
+     */
+    private static boolean canBeUnquoted(String key) {
+        if (key.isEmpty()) return false;
+        for(int i=0; i<key.length(); i++) {
+            char c = key.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9')) return false;
+        }
+        return true;
+    }
+
     @Override
     public String toString() {
         return toJson(true, false, 0);
@@ -471,9 +469,39 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
     }
 
 
+    private void addEntry(Entry entry) {
+        entry.canBeUnquoted = canBeUnquoted(entry.key);
+        entries.add(entry);
+        index.put(indexKey(entry.key), entry);
+    }
+
+    /**
+     * Folds a key the same way {@link String#equalsIgnoreCase(String)} compares it, so
+     * keys that are equal ignoring case share the same index slot. Returns the key itself
+     * when folding doesn't change it.
+     */
+    private static String indexKey(String key) {
+        for(int i=0; i<key.length(); i++) {
+            char c = key.charAt(i);
+            if (fold(c) != c) {
+                char[] chars = key.toCharArray();
+                for(int j=i; j<chars.length; j++) chars[j] = fold(chars[j]);
+                return new String(chars);
+            }
+        }
+
+        return key;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
     private static final class Entry {
         private String comment;
         protected String key;
+        /** If the key can be written unquoted, checked once when the entry is added */
+        private boolean canBeUnquoted;
         protected JsonElement value;
 
         @Override
@@ -528,25 +556,25 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
     @Override
     @Nullable
     public JsonElement put(@Nonnull String key, @Nonnull JsonElement elem) {
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase(key)) {
-                JsonElement result = entry.value;
-                entry.value = elem;
-                return result;
-            }
+        Entry existing = index.get(indexKey(key));
+        if (existing != null) {
+            JsonElement result = existing.value;
+            existing.value = elem;
+            return result;
         }
 
         //If we reached here, there's no existing mapping, so make one.
         Entry entry = new Entry();
         entry.key = key;
         entry.value = elem;
-        entries.add(entry);
+        addEntry(entry);
         return null;
     }
 
     @Override
     public void clear() {
         entries.clear();
+        index.clear();
     }
 
     @Override
@@ -554,13 +582,7 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
         if (key==null) return false;
         if (!(key instanceof String)) return false;
 
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase((String)key)) {
-                return true;
-            }
-        }
-
-        return false;
+        return index.containsKey(indexKey((String)key));
     }
 
     @Override
@@ -611,12 +633,8 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
     public JsonElement get(@Nullable Object key) {
         if (key==null || !(key instanceof String)) return null;
 
-        for(Entry entry : entries) {
-            if (entry.key.equalsIgnoreCase((String)key)) {
-                return entry.value;
-            }
-        }
-        return null;
+        Entry entry = index.get(indexKey((String)key));
+        return entry != null ? entry.value : null;
     }
 
     @Override
@@ -647,13 +665,16 @@ public class JsonObject extends JsonElement implements Map<String, JsonElement>
     public JsonElement remove(@Nullable Object key) {
         if (key==null || !(key instanceof String)) return null;
 
+        Entry entry = index.remove(indexKey((String)key));
+        if (entry == null) return null;
+
         for(int i=0; i<entries.size(); i++) {
-            Entry entry = entries.get(i);
-            if (entry.key.equalsIgnoreCase((String)key)) {
-                return entries.remove(i).value;
+            if (entries.get(i) == entry) {
+                entries.remove(i);
+                break;
             }
         }
-        return null;
+        return entry.value;
     }
 
     @Override
@@ -0,0 +1,259 @@
+package com.focamacho.sealconfig;
+
+import blue.endless.jankson.api.annotation.Comment;
+import com.focamacho.sealconfig.annotation.ConfigCategory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Reflection data of a config class. It's resolved
+ * only once for each class and shared by the parsers,
+ * so reloading a config doesn't look up the fields again.
+ */
+public final class ConfigClassInfo {
+
+    private static final ClassValue<ConfigClassInfo> cache = new ClassValue<ConfigClassInfo>() {
+        @Override
+        protected ConfigClassInfo computeValue(Class<?> type) {
+            return new ConfigClassInfo(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final List<FieldInfo> fields;
+    private final Map<String, FieldInfo> fieldsByName;
+    private final Map<String, FieldInfo> declaredFields;
+    private final Map<Class<?>, FieldInfo> categories;
+    private final Set<Class<?>> repeatedCategories;
+    private volatile Long schemaHash;
+
+    private ConfigClassInfo(Class<?> type) {
+        this.type = type;
+
+        List<FieldInfo> fields = new ArrayList<>();
+        Map<String, FieldInfo> fieldsByName = new HashMap<>();
+        Map<Class<?>, FieldInfo> categories = new HashMap<>();
+        Set<Class<?>> repeatedCategories = new HashSet<>();
+        for(Field field : type.getFields()) {
+            if(Modifier.isStatic(field.getModifiers())) continue;
+            FieldInfo info = new FieldInfo(field);
+            fields.add(info);
+            fieldsByName.putIfAbsent(foldCase(info.getName()), info);
+            if(info.isCategory() && categories.putIfAbsent(info.getType(), info) != null) repeatedCategories.add(info.getType());
+        }
+
+        Map<String, FieldInfo> declaredFields = new HashMap<>();
+        for(Field field : type.getDeclaredFields()) {
+            if(Modifier.isStatic(field.getModifiers())) continue;
+            FieldInfo info = fieldsByName.get(foldCase(field.getName()));
+            declaredFields.put(field.getName(), info != null && info.field.equals(field) ? info : new FieldInfo(field));
+        }
+
+        this.fields = Collections.unmodifiableList(fields);
+        this.fieldsByName = fieldsByName;
+        this.declaredFields = declaredFields;
+        this.categories = categories;
+        this.repeatedCategories = repeatedCategories;
+    }
+
+    /**
+     * Returns the info of a config class.
+     *
+     * @param type the config class.
+     * @return the cached info of the class.
+     */
+    public static ConfigClassInfo of(Class<?> type) {
+        return cache.get(type);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the public instance fields of the class,
+     * including the inherited ones.
+     */
+    public List<FieldInfo> getFields() {
+        return fields;
+    }
+
+    /**
+     * Finds a public instance field ignoring the case
+     * of the name.
+     *
+     * @param name the field name.
+     * @return the field, or null if there is none.
+     */
+    public FieldInfo getField(String name) {
+        return fieldsByName.get(foldCase(name));
+    }
+
+    /**
+     * Folds a name the same way {@link String#equalsIgnoreCase(String)}
+     * compares it, like the keys of a JsonObject are, so a field is
+     * found by the same keys the tree matches.
+     */
+    private static String foldCase(String name) {
+        for(int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if(fold(c) != c) {
+                char[] chars = name.toCharArray();
+                for(int j = i; j < chars.length; j++) chars[j] = fold(chars[j]);
+                return new String(chars);
+            }
+        }
+        return name;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Finds an instance field declared by this class,
+     * the same way as {@link Class#getDeclaredField(String)}.
+     *
+     * @param name the field name.
+     * @return the field, or null if there is none.
+     */
+    public FieldInfo getDeclaredField(String name) {
+        return declaredFields.get(name);
+    }
+
+    /**
+     * Finds the public instance field of a category class.
+     *
+     * @param categoryClass the class of the category.
+     * @return the field, or null if there is none.
+     * @throws IllegalArgumentException if more than one
+     * field has the class. Use {@link #getCategory(String)}
+     * for those.
+     */
+    public FieldInfo getCategory(Class<?> categoryClass) {
+        if(repeatedCategories.contains(categoryClass)) throw new IllegalArgumentException(type.getName() + " has more than one category of " + categoryClass.getName() + ", get it by the field name");
+        return categories.get(categoryClass);
+    }
+
+    /**
+     * Finds a public instance category field by its name,
+     * ignoring the case.
+     *
+     * @param name the field name.
+     * @return the field, or null if there is no category
+     * field with the name.
+     */
+    public FieldInfo getCategory(String name) {
+        FieldInfo field = getField(name);
+        return field != null && field.isCategory() ? field : null;
+    }
+
+    /**
+     * Hash of the structure of the class: the names, types
+     * and comments of its fields, including the ones of its
+     * categories. It changes when the fields of the config
+     * are changed, but not when their default values are.
+     *
+     * @return the schema hash of the class.
+     */
+    public long getSchemaHash() {
+        Long schemaHash = this.schemaHash;
+        if(schemaHash == null) this.schemaHash = schemaHash = getSchemaHash(new HashSet<>());
+        return schemaHash;
+    }
+
+    /**
+     * @param visiting the classes whose hash is being created,
+     *                 so a category that contains itself is
+     *                 only added by its name.
+     */
+    private long getSchemaHash(Set<Class<?>> visiting) {
+        visiting.add(type);
+        StringBuilder schema = new StringBuilder(type.getName());
+        for(FieldInfo field : fields) {
+            schema.append(';').append(field.getName())
+                    .append(':').append(field.getField().getGenericType().getTypeName())
+                    .append(':').append(field.getComment());
+            if(field.isCategory() && !visiting.contains(field.getType())) schema.append(':').append(of(field.getType()).getSchemaHash(visiting));
+        }
+        visiting.remove(type);
+
+        //64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for(int i = 0; i < schema.length(); i++) {
+            hash ^= schema.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public static final class FieldInfo {
+
+        private final Field field;
+        private final FieldAccessor accessor;
+        private final String name;
+        private final boolean category;
+        private final String comment;
+
+        private FieldInfo(Field field) {
+            this.field = field;
+            this.accessor = FieldAccessor.of(field);
+            this.name = field.getName();
+            this.category = field.getType().isAnnotationPresent(ConfigCategory.class);
+
+            Comment comment = field.getAnnotation(Comment.class);
+            this.comment = comment != null ? comment.value() : null;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return field.getType();
+        }
+
+        /**
+         * @return if the type of the field is annotated
+         * with {@link ConfigCategory}.
+         */
+        public boolean isCategory() {
+            return category;
+        }
+
+        /**
+         * @return the text of the field comment, or null
+         * if it doesn't have one.
+         */
+        public String getComment() {
+            return comment;
+        }
+
+        public Object get(Object instance) throws IllegalAccessException {
+            return accessor.get(instance);
+        }
+
+        public void set(Object instance, Object value) throws IllegalAccessException {
+            accessor.set(instance, value);
+        }
+
+        /**
+         * Copies the value of this field from an object to
+         * another one.
+         *
+         * @param from the object to copy the value from.
+         * @param to the object to copy the value to.
+         */
+        public void copy(Object from, Object to) throws IllegalAccessException {
+            accessor.copy(from, to);
+        }
+
+    }
+
+}
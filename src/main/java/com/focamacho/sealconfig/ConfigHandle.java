@@ -0,0 +1,125 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.ConfigClassInfo.FieldInfo;
+
+import java.io.File;
+import java.util.function.Function;
+
+/**
+ * Holds the current object of a config file.
+ *
+ * When a config is loaded through a handle, reloading
+ * it doesn't change the values of the existing object.
+ * A new object is created with the new values and the
+ * handle starts returning it, so every object returned
+ * by {@link #get()} is always complete and consistent.
+ *
+ * When the parser loads categories lazily, the categories
+ * of the object are only bound when they are accessed
+ * through {@link #category(Class)} or {@link #category(String)}.
+ *
+ * @param <T> the config class.
+ */
+@SuppressWarnings("unused")
+public final class ConfigHandle<T> {
+
+    private final File configFile;
+    private final Class<T> configClass;
+    private volatile T config;
+    private volatile LazyCategories categories;
+
+    ConfigHandle(File configFile, Class<T> configClass) {
+        this.configFile = configFile;
+        this.configClass = configClass;
+    }
+
+    /**
+     * Returns the current config object. Keep the
+     * returned object while reading multiple values
+     * that need to be consistent with each other.
+     *
+     * @return the current config object.
+     */
+    public T get() {
+        return config;
+    }
+
+    /**
+     * Returns a category of the current config object,
+     * binding it first if it was not accessed yet. When
+     * categories are loaded lazily, they must be accessed
+     * through this method instead of the config fields.
+     *
+     * If the config has more than one category field of
+     * the same class, use {@link #category(String)}.
+     *
+     * @param categoryClass the class of the category.
+     * @param <C> the category class.
+     * @return the category object, or null if it failed
+     * to be bound.
+     * @throws IllegalArgumentException if the config has no
+     * category of the class, or more than one.
+     */
+    public <C> C category(Class<C> categoryClass) {
+        return categoryClass.cast(category(config -> LazyCategories.getCategoryField(config, categoryClass)));
+    }
+
+    /**
+     * Returns a category of the current config object by
+     * the name of its field, binding it first if it was not
+     * accessed yet. See {@link #category(Class)}.
+     *
+     * @param fieldName the name of the category field.
+     * @param <C> the category class.
+     * @return the category object, or null if it failed
+     * to be bound.
+     * @throws IllegalArgumentException if the config has no
+     * category field with the name.
+     */
+    @SuppressWarnings("unchecked")
+    public <C> C category(String fieldName) {
+        return (C) category(config -> LazyCategories.getCategoryField(config, fieldName));
+    }
+
+    private Object category(Function<Object, FieldInfo> fieldGetter) {
+        try {
+            LazyCategories categories = this.categories;
+            if(categories != null) return categories.get(fieldGetter.apply(categories.getConfig()));
+
+            T config = this.config;
+            return config == null ? null : fieldGetter.apply(config).get(config);
+        } catch(IllegalArgumentException e) {
+            throw e;
+        } catch(Exception e) {
+            SealConfig.logger.severe("Error loading a config category:");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public File getConfigFile() {
+        return configFile;
+    }
+
+    public Class<T> getConfigClass() {
+        return configClass;
+    }
+
+    synchronized void set(T config, LazyCategories categories) {
+        this.categories = categories;
+        this.config = config;
+    }
+
+    LazyCategories getCategories() {
+        return categories;
+    }
+
+    /**
+     * Sets the first object of the handle, if a
+     * newer one wasn't set already.
+     */
+    synchronized void init(T config) {
+        if(this.config == null) this.config = config;
+    }
+
+}
@@ -1,54 +1,958 @@
 package com.focamacho.sealconfig;
 
-import java.io.File;
-import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
+import com.focamacho.sealconfig.ConfigClassInfo.FieldInfo;
+import com.focamacho.sealconfig.FileFingerprint.HashingOutputStream;
+
+import java.io.*;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 
 @SuppressWarnings("unchecked")
 public abstract class ConfigParser {
 
     protected final Logger logger;
-    protected final Map<Class<?>, Map<File, Object>> configs = new HashMap<>();
+    protected final Map<Class<?>, Map<File, Object>> configs = new ConcurrentHashMap<>();
+    private final Map<ConfigKey, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[64];
+    private final Map<ConfigKey, ConfigHandle<?>> handles = new ConcurrentHashMap<>();
+    private final Map<Object, ConfigKey> locations = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final LinkedHashMap<ConfigKey, Boolean> recentlyUsed = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<ConfigKey, WeakConfig> weakConfigs = new ConcurrentHashMap<>();
+    private final Map<WeakConfig, ConfigKey> weakLocations = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final Map<File, FileFingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final AtomicLong reloadedFiles = new AtomicLong();
+    private final AtomicLong skippedFiles = new AtomicLong();
+    private final Set<Path> pendingSyncs = ConcurrentHashMap.newKeySet();
+    private Executor executor;
+    private FileSync fileSync = FileSync.NONE;
+    private long saveWindowMillis = 1000;
+    private volatile int maxLoadedConfigs = 0;
+    private boolean lazyCategories = false;
+    private SaveQueue saveQueue;
+    private boolean skipUnchanged = false;
+    private volatile ConfigWatcher watcher;
 
     //You can't instantiate this class
     protected ConfigParser() {
         this.logger = SealConfig.logger;
+        for(int i = 0; i < locks.length; i++) locks[i] = new Object();
+    }
+
+    /**
+     * Sets the executor used to reload and save the
+     * config files. Each file is handled as a separate
+     * task, so they can be processed in parallel, like
+     * with a ForkJoinPool or a virtual thread executor.
+     *
+     * By default the files are processed one by one
+     * on the calling thread.
+     *
+     * @param executor the executor, or null to process
+     *                 the files on the calling thread.
+     * @return this parser.
+     */
+    public ConfigParser setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets if reloading should skip the files that were not
+     * changed since SealConfig last read or wrote them. These
+     * files are checked by their size and modification time,
+     * and hashed only when those are different.
+     *
+     * Values changed on the config objects of skipped files
+     * are kept, since the files are not read again.
+     *
+     * @param skipUnchanged true to skip the unchanged files.
+     * @return this parser.
+     */
+    public ConfigParser setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+        return this;
+    }
+
+    /**
+     * Sets how the written config files are synced to the disk.
+     * The files are always written to a temporary file that is
+     * then moved over the config file, so a crash while writing
+     * never leaves a truncated config.
+     *
+     * @param fileSync the sync mode.
+     * @return this parser.
+     */
+    public ConfigParser setFileSync(FileSync fileSync) {
+        this.fileSync = fileSync;
+        return this;
+    }
+
+    /**
+     * Sets for how long an async save waits before writing
+     * the config. Saving the same object again during this
+     * time doesn't write it again.
+     *
+     * @param saveWindowMillis the time to wait, in milliseconds.
+     * @return this parser.
+     */
+    public ConfigParser setSaveWindow(long saveWindowMillis) {
+        this.saveWindowMillis = saveWindowMillis;
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of configs kept loaded. When
+     * a new config is loaded past this limit, the least
+     * recently used configs are saved, if their values were
+     * changed, and only weakly held from then on.
+     *
+     * While the application still references them, they are
+     * reloaded and saved as before, and getting them again
+     * returns the same objects. Once they are not referenced
+     * anymore they are unloaded, and getting them again loads
+     * them from their files. Configs with a {@link ConfigHandle}
+     * are always kept loaded.
+     *
+     * @param maxLoadedConfigs the maximum amount of configs,
+     *                         or 0 for no limit.
+     * @return this parser.
+     */
+    public ConfigParser setMaxLoadedConfigs(int maxLoadedConfigs) {
+        this.maxLoadedConfigs = maxLoadedConfigs;
+        return this;
+    }
+
+    /**
+     * Sets if the categories of configs loaded through a
+     * {@link ConfigHandle} should only be bound the first
+     * time they are accessed, with {@link ConfigHandle#category(Class)}
+     * or {@link ConfigHandle#category(String)}.
+     * Until then, the category fields of the config object
+     * keep the values of the class defaults.
+     *
+     * Parsers that don't support it load the categories
+     * normally.
+     *
+     * @param lazyCategories true to load categories lazily.
+     * @return this parser.
+     */
+    public ConfigParser setLazyCategories(boolean lazyCategories) {
+        this.lazyCategories = lazyCategories;
+        return this;
+    }
+
+    /**
+     * @return how many files were read again by reloads.
+     */
+    public long getReloadedFiles() {
+        return reloadedFiles.get();
+    }
+
+    /**
+     * @return how many files were skipped by reloads
+     * because they were not changed.
+     */
+    public long getSkippedFiles() {
+        return skippedFiles.get();
     }
 
     <T> T getConfig(File configFile, Class<T> classe) {
-        Map<File, Object> configs = this.configs.get(classe);
-        if(configs == null) return createConfig(configFile, classe);
-        Object config = configs.get(configFile);
-        if(config == null) return createConfig(configFile, classe);
+        Object config = getStrong(configFile, classe);
+        if(config != null) {
+            if(maxLoadedConfigs > 0) {
+                synchronized(recentlyUsed) {
+                    recentlyUsed.get(new ConfigKey(classe, configFile));
+                }
+            }
+            return (T) config;
+        }
+
+        config = getOrLoad(configFile, classe);
+        if(maxLoadedConfigs > 0) evict();
         return (T) config;
     }
 
-    void reload() {
-        configs.forEach((classe, map) -> map.forEach((file, object) -> createConfig(file, classe)));
+    private Object getOrLoad(File configFile, Class<?> classe) {
+        //Only one thread loads the file, the others wait for it
+        ConfigKey key = new ConfigKey(classe, configFile);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(key, future);
+        if(inFlight != null) return inFlight.join();
+
+        try {
+            Object config = getLoaded(configFile, classe);
+            if(config == null) config = loadConfig(configFile, classe);
+            //Returns the registered object, in case the values were copied to one loaded meanwhile
+            Object registered = getLoaded(configFile, classe);
+            if(registered != null) config = registered;
+            future.complete(config);
+            return config;
+        } catch(Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    <T> ConfigHandle<T> getHandle(File configFile, Class<T> classe) {
+        ConfigHandle<T> handle = (ConfigHandle<T>) handles.computeIfAbsent(new ConfigKey(classe, configFile), key -> new ConfigHandle<>(configFile, classe));
+        if(handle.get() == null) {
+            T config = getConfig(configFile, classe);
+            if(config == null) return null;
+            handle.init(config);
+        }
+        return handle;
+    }
+
+    boolean unload(File configFile) {
+        List<ConfigKey> keys = new ArrayList<>();
+        forEachConfig((key, object) -> {
+            if(key.configFile.equals(configFile)) keys.add(key);
+        });
+
+        boolean unloaded = false;
+        for(ConfigKey key : keys) {
+            if(unload(key)) unloaded = true;
+        }
+        return unloaded;
     }
 
-    void save() {
-        configs.forEach((classe, map) -> map.forEach((file, object) -> save(object)));
+    boolean unload(Object configObject) {
+        ConfigKey key = getKey(configObject);
+        return key != null && unload(key);
     }
 
-    protected abstract void save(Object configObject);
+    private boolean unload(ConfigKey key) {
+        //Writes the async save queued before it was unloaded
+        Object loaded = getStrong(key.configFile, key.configClass);
+        WeakConfig weakLoaded = loaded == null ? weakConfigs.get(key) : null;
+        if(weakLoaded != null) loaded = weakLoaded.get();
+        SaveQueue saveQueue = getSaveQueue();
+        if(loaded != null && saveQueue != null) saveQueue.flush(loaded);
 
-    protected abstract <T> T createConfig(File configFile, Class<T> configClass);
+        synchronized(getLock(key.configFile)) {
+            Map<File, Object> configs = this.configs.get(key.configClass);
+            Object config = configs == null ? null : configs.remove(key.configFile);
+            WeakConfig weak = weakConfigs.remove(key);
+            if(weak != null) weakLocations.remove(weak);
+            if(config == null && (weak == null || weak.get() == null)) return false;
 
-    protected void setValues(Object configObject, Object newObject) {
+            if(config != null) locations.remove(config);
+            handles.remove(key);
+            synchronized(recentlyUsed) {
+                recentlyUsed.remove(key);
+            }
+            removeUnusedFingerprint(key.configFile);
+        }
+
+        //Stops the queue thread when there is no config left to save, outside the lock it may wait for
+        if(weakConfigs.isEmpty() && configs.values().stream().allMatch(Map::isEmpty)) closeSaveQueue();
+        return true;
+    }
+
+    private void removeUnusedFingerprint(File configFile) {
+        if(configs.values().stream().anyMatch(map -> map.containsKey(configFile))) return;
+        if(weakConfigs.keySet().stream().anyMatch(key -> key.configFile.equals(configFile))) return;
+        fingerprints.remove(configFile);
+    }
+
+    /**
+     * Weakly holds the least recently used configs past the
+     * limit, saving them first if they were changed.
+     */
+    private void evict() {
+        expungeCollected();
+
+        int excess;
+        synchronized(recentlyUsed) {
+            excess = recentlyUsed.size() - maxLoadedConfigs;
+        }
+
+        for(int i = 0; i < excess; i++) {
+            ConfigKey eldest;
+            synchronized(recentlyUsed) {
+                if(recentlyUsed.size() <= maxLoadedConfigs) return;
+                eldest = recentlyUsed.keySet().iterator().next();
+            }
+
+            //Configs with a handle are always kept loaded
+            if(handles.containsKey(eldest)) {
+                synchronized(recentlyUsed) {
+                    recentlyUsed.remove(eldest);
+                }
+                continue;
+            }
+
+            Object config = getStrong(eldest.configFile, eldest.configClass);
+            if(config != null) {
+                try {
+                    saveNow(config, true);
+                } catch(Exception e) {
+                    //Keeps it loaded, so the changes are not lost
+                    logger.severe("Error saving an evicted config file: " + eldest.configFile);
+                    e.printStackTrace();
+                    synchronized(recentlyUsed) {
+                        recentlyUsed.get(eldest);
+                    }
+                    continue;
+                }
+            }
+
+            weaken(eldest);
+        }
+    }
+
+    /**
+     * Stops keeping a config strongly, so it's unloaded once
+     * the application doesn't reference it anymore.
+     */
+    private void weaken(ConfigKey key) {
+        synchronized(getLock(key.configFile)) {
+            synchronized(recentlyUsed) {
+                recentlyUsed.remove(key);
+            }
+            if(handles.containsKey(key)) return;
+
+            Map<File, Object> configs = this.configs.get(key.configClass);
+            Object config = configs == null ? null : configs.remove(key.configFile);
+            if(config == null) return;
+
+            locations.remove(config);
+            WeakConfig weak = new WeakConfig(config, key, collected);
+            weakConfigs.put(key, weak);
+            weakLocations.put(weak, key);
+        }
+    }
+
+    /**
+     * Keeps a weakly held config strongly again, if it's
+     * still referenced.
+     *
+     * @return the config object, or null if it's not loaded.
+     */
+    private Object strengthen(ConfigKey key) {
+        synchronized(getLock(key.configFile)) {
+            Object loaded = getStrong(key.configFile, key.configClass);
+            if(loaded != null) return loaded;
+
+            WeakConfig weak = weakConfigs.remove(key);
+            if(weak == null) return null;
+            weakLocations.remove(weak);
+            Object config = weak.get();
+            if(config == null) return null;
+
+            locations.put(config, key);
+            configs.computeIfAbsent(key.configClass, classe -> new ConcurrentHashMap<>()).put(key.configFile, config);
+            if(maxLoadedConfigs > 0) {
+                synchronized(recentlyUsed) {
+                    recentlyUsed.put(key, Boolean.TRUE);
+                }
+            }
+            return config;
+        }
+    }
+
+    /**
+     * Removes the weakly held configs that were collected.
+     */
+    private void expungeCollected() {
+        for(Reference<?> reference; (reference = collected.poll()) != null; ) {
+            WeakConfig weak = (WeakConfig) reference;
+            synchronized(getLock(weak.key.configFile)) {
+                weakLocations.remove(weak);
+                if(weakConfigs.remove(weak.key, weak)) removeUnusedFingerprint(weak.key.configFile);
+            }
+        }
+    }
+
+    private Object getStrong(File configFile, Class<?> classe) {
+        Map<File, Object> configs = this.configs.get(classe);
+        return configs == null ? null : configs.get(configFile);
+    }
+
+    /**
+     * Returns a loaded config, keeping it strongly again if
+     * it was only weakly held.
+     */
+    private Object getLoaded(File configFile, Class<?> classe) {
+        Object config = getStrong(configFile, classe);
+        if(config != null || weakConfigs.isEmpty()) return config;
+        return strengthen(new ConfigKey(classe, configFile));
+    }
+
+    /**
+     * Runs an action for each loaded config, including the
+     * weakly held ones that are still referenced.
+     */
+    private void forEachConfig(BiConsumer<ConfigKey, Object> action) {
+        configs.forEach((classe, map) -> map.forEach((file, object) -> action.accept(new ConfigKey(classe, file), object)));
+        weakConfigs.forEach((key, weak) -> {
+            Object object = weak.get();
+            if(object != null) action.accept(key, object);
+        });
+    }
+
+    private ConfigKey getKey(Object configObject) {
+        ConfigKey key = locations.get(configObject);
+        if(key == null && !weakLocations.isEmpty()) key = weakLocations.get(new WeakConfig(configObject, null, null));
+        return key;
+    }
+
+    private <T> T loadConfig(File configFile, Class<T> classe) {
+        try {
+            synchronized(getLock(configFile)) {
+                //Loaded by another thread or weakly held, while waiting for the lock
+                Object loaded = getLoaded(configFile, classe);
+                if(loaded != null) return (T) loaded;
+                return createConfig(configFile, classe);
+            }
+        } catch(Exception e) {
+            logger.severe("Error loading a config file:");
+            e.printStackTrace();
+            return null;
+        } finally {
+            syncDirectories();
+        }
+    }
+
+    Map<File, Exception> reload() {
+        Map<ConfigKey, ConfigTask> tasks = new LinkedHashMap<>();
+        forEachConfig((key, object) -> tasks.put(key, () -> reload(key.configFile, key.configClass, skipUnchanged)));
+        return run(tasks, "Error reloading a config file: ");
+    }
+
+    Map<File, Exception> save() {
+        Map<ConfigKey, ConfigTask> tasks = new LinkedHashMap<>();
+        forEachConfig((key, object) -> tasks.put(key, () -> save(object)));
+        return run(tasks, "Error saving a config file: ");
+    }
+
+    /**
+     * Reloads the configs of the changed files, skipping the
+     * ones whose contents are still the same as when SealConfig
+     * last read or wrote them.
+     *
+     * @param paths the changed files, or null to check all files.
+     */
+    void reloadChanged(Set<Path> paths) {
+        Map<ConfigKey, ConfigTask> tasks = new LinkedHashMap<>();
+        forEachConfig((key, object) -> {
+            if(paths != null && !paths.contains(ConfigWatcher.toPath(key.configFile))) return;
+            tasks.put(key, () -> reload(key.configFile, key.configClass, true));
+        });
+        if(!tasks.isEmpty()) run(tasks, "Error reloading a config file: ");
+    }
+
+    private void reload(File configFile, Class<?> classe, boolean skipUnchanged) throws Exception {
+        synchronized(getLock(configFile)) {
+            if(skipUnchanged && isUnchanged(configFile)) {
+                skippedFiles.incrementAndGet();
+                return;
+            }
+
+            createConfig(configFile, classe);
+            reloadedFiles.incrementAndGet();
+        }
+    }
+
+    /**
+     * Checks if a config file still has the contents of its
+     * last fingerprint. Files with the same size and modification
+     * time are not read, unless they were modified too close to
+     * when the fingerprint was taken. The others are hashed and
+     * compared.
+     *
+     * @param configFile the config file.
+     * @return true if the file was not changed.
+     */
+    protected final boolean isUnchanged(File configFile) throws IOException {
+        FileFingerprint fingerprint = fingerprints.get(configFile);
+        if(fingerprint == null || !configFile.exists()) return false;
+        if(fingerprint.matchesStat(configFile)) return true;
+
+        FileFingerprint current = FileFingerprint.read(configFile);
+        if(!current.sameContents(fingerprint)) return false;
+
+        //The new fingerprint may trust the modification time, no need to hash it again next time
+        fingerprints.put(configFile, current);
+        return true;
+    }
+
+    synchronized void watch(long debounceMillis) throws IOException {
+        stopWatching();
+        ConfigWatcher watcher = new ConfigWatcher(this, debounceMillis);
+        this.watcher = watcher;
+        forEachConfig((key, object) -> watcher.watch(key.configFile));
+        watcher.start();
+    }
+
+    synchronized void stopWatching() {
+        if(watcher == null) return;
+        watcher.close();
+        watcher = null;
+    }
+
+    Map<File, Exception> saveDirty() {
+        Map<ConfigKey, ConfigTask> tasks = new LinkedHashMap<>();
+        forEachConfig((key, object) -> tasks.put(key, () -> saveIfDirty(object)));
+        return run(tasks, "Error saving a config file: ");
+    }
+
+    void saveConfig(Object configObject) {
+        try {
+            saveNow(configObject);
+        } catch(Exception e) {
+            logger.severe("Error saving a config file:");
+            e.printStackTrace();
+        }
+    }
+
+    void saveNow(Object configObject) throws Exception {
+        saveNow(configObject, false);
+    }
+
+    private void saveNow(Object configObject, boolean onlyDirty) throws Exception {
+        try {
+            if(onlyDirty) saveIfDirty(configObject);
+            else save(configObject);
+        } finally {
+            syncDirectories();
+        }
+    }
+
+    CompletableFuture<Void> saveAsync(Object configObject) {
+        SaveQueue saveQueue;
+        synchronized(this) {
+            if(this.saveQueue == null) this.saveQueue = new SaveQueue(this);
+            saveQueue = this.saveQueue;
+        }
+        return saveQueue.save(configObject, saveWindowMillis);
+    }
+
+    void flush() {
+        SaveQueue saveQueue = getSaveQueue();
+        if(saveQueue != null) saveQueue.flush();
+    }
+
+    /**
+     * Writes the queued async saves and stops the threads
+     * of this parser. Async saves made after it start the
+     * save queue again.
+     */
+    void close() {
+        stopWatching();
+        closeSaveQueue();
+    }
+
+    private synchronized SaveQueue getSaveQueue() {
+        return saveQueue;
+    }
+
+    private void closeSaveQueue() {
+        SaveQueue saveQueue;
+        synchronized(this) {
+            saveQueue = this.saveQueue;
+            this.saveQueue = null;
+        }
+        if(saveQueue != null) saveQueue.close();
+    }
+
+    /**
+     * Runs a task for each loaded config, on the executor
+     * if there is one, and waits for all of them.
+     *
+     * @return the files that failed, with their errors. When
+     * more than one config of a file failed, the errors of the
+     * others are suppressed by the first one.
+     */
+    private Map<File, Exception> run(Map<ConfigKey, ConfigTask> tasks, String errorMessage) {
+        Map<File, Exception> failures = new ConcurrentHashMap<>();
+
+        if(executor == null) {
+            tasks.forEach((key, task) -> run(key.configFile, task, failures, errorMessage));
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+            tasks.forEach((key, task) -> futures.add(CompletableFuture.runAsync(() -> run(key.configFile, task, failures, errorMessage), executor)));
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        syncDirectories();
+        return failures;
+    }
+
+    private void run(File file, ConfigTask task, Map<File, Exception> failures, String errorMessage) {
         try {
-            for(Field field : configObject.getClass().getFields()) {
-                for(Field newField : newObject.getClass().getFields()) {
-                    if(field.getName().equalsIgnoreCase(newField.getName())) {
-                        Class<?> fieldType = field.getType();
-                        if(fieldType.isAssignableFrom(Object.class) && !fieldType.isAssignableFrom(String.class) && !fieldType.isAssignableFrom(Map.class)) {
-                            setValues(field.get(configObject), newField.get(newObject));
-                        } else {
-                            field.set(configObject, newField.get(newObject));
-                        }
+            task.run();
+        } catch(Exception e) {
+            logger.severe(errorMessage + file);
+            e.printStackTrace();
+            //Configs of the same file may fail too, their errors are kept in the first one
+            failures.merge(file, e, (first, next) -> {
+                first.addSuppressed(next);
+                return first;
+            });
+        }
+    }
+
+    /**
+     * Registers a loaded config object. If there is already
+     * an object for the file, the new values are copied to it,
+     * unless the config has a {@link ConfigHandle}, in which
+     * case the new object replaces the old one.
+     *
+     * The config object must be complete when registered,
+     * it can be published to other threads right away.
+     *
+     * @param configFile the config file.
+     * @param configClass the config class.
+     * @param config the loaded config object.
+     */
+    protected void register(File configFile, Class<?> configClass, Object config) {
+        register(configFile, configClass, config, null);
+    }
+
+    /**
+     * Registers a config object whose categories were not
+     * bound yet. See {@link #loadsCategoriesLazily(File, Class)}.
+     *
+     * @param categories the categories that were not bound,
+     *                   or null if all of them were.
+     */
+    protected void register(File configFile, Class<?> configClass, Object config, LazyCategories categories) {
+        Map<File, Object> configs = this.configs.computeIfAbsent(configClass, classe -> new ConcurrentHashMap<>());
+
+        ConfigKey key = new ConfigKey(configClass, configFile);
+        ConfigHandle<Object> handle = (ConfigHandle<Object>) handles.get(key);
+        if(handle != null) {
+            locations.put(config, key);
+            Object replaced = configs.put(configFile, config);
+            if(replaced != null && replaced != config) locations.remove(replaced);
+            handle.set(config, categories);
+        } else {
+            WeakConfig weak = weakConfigs.get(key);
+            Object weakConfig = weak == null ? null : weak.get();
+            if(weakConfig != null) {
+                //Still referenced by the application, only its values are updated
+                setValues(weakConfig, config);
+            } else {
+                if(weak != null) {
+                    weakConfigs.remove(key, weak);
+                    weakLocations.remove(weak);
+                }
+                Object existing = configs.putIfAbsent(configFile, config);
+                if(existing != null) setValues(existing, config);
+                else locations.put(config, key);
+            }
+        }
+
+        if(maxLoadedConfigs > 0 && handle == null && configs.containsKey(configFile)) {
+            synchronized(recentlyUsed) {
+                recentlyUsed.put(key, Boolean.TRUE);
+            }
+        }
+
+        ConfigWatcher watcher = this.watcher;
+        if(watcher != null) watcher.watch(configFile);
+    }
+
+    /**
+     * Checks if the categories of a config should be loaded
+     * lazily. Only configs loaded through a {@link ConfigHandle}
+     * are, since reloading replaces their objects instead of
+     * copying the values to the existing one.
+     *
+     * @param configFile the config file.
+     * @param configClass the config class.
+     * @return true if the parser should register the config
+     * with its categories not bound.
+     */
+    protected final boolean loadsCategoriesLazily(File configFile, Class<?> configClass) {
+        return lazyCategories && handles.containsKey(new ConfigKey(configClass, configFile));
+    }
+
+    /**
+     * Finds the categories of a loaded config object that
+     * were registered without being bound.
+     *
+     * @param configObject the config object.
+     * @return the lazy categories of the object, or null
+     * if all of them were bound when it was loaded.
+     */
+    protected final LazyCategories getLazyCategories(Object configObject) {
+        ConfigKey key = locations.get(configObject);
+        ConfigHandle<?> handle = key == null ? null : handles.get(key);
+        LazyCategories categories = handle == null ? null : handle.getCategories();
+        return categories != null && categories.getConfig() == configObject ? categories : null;
+    }
+
+    /**
+     * Finds the file of a loaded config object.
+     *
+     * @param configObject the config object.
+     * @return the file of the config, or null if the
+     * object is not a loaded config.
+     */
+    protected final File getConfigFile(Object configObject) {
+        ConfigKey key = getKey(configObject);
+        return key == null ? null : key.configFile;
+    }
+
+    /**
+     * Sets the fingerprint of a config file. Parsers must set
+     * it after reading or writing a file, so SealConfig knows
+     * when the file was changed by something else.
+     *
+     * @param configFile the config file.
+     * @param fingerprint the fingerprint of the file contents.
+     */
+    protected final void setFingerprint(File configFile, FileFingerprint fingerprint) {
+        fingerprints.put(configFile, fingerprint);
+    }
+
+    /**
+     * @param configFile the config file.
+     * @return the last fingerprint set for the file, or
+     * null if there is none.
+     */
+    protected final FileFingerprint getFingerprint(File configFile) {
+        return fingerprints.get(configFile);
+    }
+
+    /**
+     * Returns the lock of a config file. Loading, reloading
+     * and saving a file must be done while holding it, so
+     * only one thread reads or writes the file at a time.
+     *
+     * @param configFile the config file.
+     * @return the lock object of the file.
+     */
+    protected final Object getLock(File configFile) {
+        return locks[(configFile.hashCode() & 0x7fffffff) % locks.length];
+    }
+
+    /**
+     * Checks if a config file already has the given contents,
+     * so writing them again can be skipped.
+     *
+     * @param configFile the config file.
+     * @param contents the fingerprint of the contents to write.
+     * @return true if the file has the same contents.
+     */
+    protected final boolean hasContents(File configFile, FileFingerprint contents) throws IOException {
+        if(!configFile.exists()) return false;
+
+        FileFingerprint fingerprint = fingerprints.get(configFile);
+        if(fingerprint == null) {
+            fingerprint = FileFingerprint.read(configFile);
+            fingerprints.put(configFile, fingerprint);
+            return fingerprint.sameContents(contents);
+        }
+
+        return fingerprint.sameContents(contents) && isUnchanged(configFile);
+    }
+
+    /**
+     * Writes a config file. The contents are written to a
+     * temporary file in the same directory, which is then
+     * moved over the config file, synced as set by
+     * {@link #setFileSync(FileSync)}. The fingerprint of
+     * the file is updated after it's written.
+     *
+     * @param configFile the config file.
+     * @param writer writes the contents of the file.
+     */
+    protected final void writeFile(File configFile, ContentWriter writer) throws IOException {
+        Path target = configFile.getAbsoluteFile().toPath();
+        Path directory = target.getParent();
+        Files.createDirectories(directory);
+
+        Path temp = directory.resolve("." + configFile.getName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            HashingOutputStream out;
+            try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                //The writer may close the stream, but the channel must stay open until it's synced
+                out = new HashingOutputStream(new FilterOutputStream(Channels.newOutputStream(channel)) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        this.out.write(b, off, len);
                     }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush();
+                    }
+                });
+                writer.write(out);
+                out.flush();
+                if(fileSync != FileSync.NONE) channel.force(true);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch(AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            setFingerprint(configFile, out.getFingerprint(configFile));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if(fileSync == FileSync.ALWAYS) syncDirectory(directory);
+        else if(fileSync == FileSync.BATCH) pendingSyncs.add(directory);
+    }
+
+    /**
+     * Syncs the directories written to since the last sync.
+     * Directories taken by another thread may still be being
+     * synced, so the lock is held until they are, and no call
+     * returns before the directories of its files are synced.
+     */
+    private void syncDirectories() {
+        synchronized(pendingSyncs) {
+            for(Iterator<Path> iterator = pendingSyncs.iterator(); iterator.hasNext(); ) {
+                Path directory = iterator.next();
+                iterator.remove();
+                syncDirectory(directory);
+            }
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        //Not every system allows opening directories, like Windows, those don't need it
+        try(FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch(IOException ignored) {}
+    }
+
+    /**
+     * Saves a config object only if its values were changed
+     * since it was last loaded or saved. By default it always
+     * saves the object.
+     *
+     * @param configObject the config object to be saved.
+     */
+    protected void saveIfDirty(Object configObject) throws Exception {
+        save(configObject);
+    }
+
+    protected abstract void save(Object configObject) throws Exception;
+
+    protected abstract <T> T createConfig(File configFile, Class<T> configClass) throws Exception;
+
+    private interface ConfigTask {
+        void run() throws Exception;
+    }
+
+    /**
+     * Writes the contents of a config file.
+     */
+    protected interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * How the config files are synced to the disk after written.
+     */
+    public enum FileSync {
+        /**
+         * The files are not synced, the system writes them
+         * to the disk when it wants. A system crash may lose
+         * the last changes, but never leaves a truncated file.
+         */
+        NONE,
+        /**
+         * Every file and its directory are synced right
+         * after the file is written.
+         */
+        ALWAYS,
+        /**
+         * Every file is synced before being moved over the
+         * config file, and each directory is synced only
+         * once after all files of a load, reload or save
+         * are written.
+         */
+        BATCH
+    }
+
+    private static final class ConfigKey {
+
+        private final Class<?> configClass;
+        private final File configFile;
+
+        private ConfigKey(Class<?> configClass, File configFile) {
+            this.configClass = configClass;
+            this.configFile = configFile;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof ConfigKey)) return false;
+            ConfigKey key = (ConfigKey) other;
+            return configClass == key.configClass && configFile.equals(key.configFile);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * configClass.hashCode() + configFile.hashCode();
+        }
+
+    }
+
+    /**
+     * Weak reference to a config that is not kept loaded,
+     * compared by the identity of the config object.
+     */
+    private static final class WeakConfig extends WeakReference<Object> {
+
+        private final ConfigKey key;
+        private final int hash;
+
+        private WeakConfig(Object config, ConfigKey key, ReferenceQueue<Object> queue) {
+            super(config, queue);
+            this.key = key;
+            this.hash = System.identityHashCode(config);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(this == other) return true;
+            if(!(other instanceof WeakConfig)) return false;
+            Object config = get();
+            return config != null && config == ((WeakConfig) other).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    protected void setValues(Object configObject, Object newObject) {
+        try {
+            ConfigClassInfo newInfo = ConfigClassInfo.of(newObject.getClass());
+            for(FieldInfo field : ConfigClassInfo.of(configObject.getClass()).getFields()) {
+                FieldInfo newField = newInfo.getField(field.getName());
+                if(newField == null) continue;
+
+                if(field == newField) {
+                    field.copy(newObject, configObject);
+                } else {
+                    field.set(configObject, newField.get(newObject));
                 }
             }
         } catch(Exception e) {
@@ -0,0 +1,107 @@
+package com.focamacho.sealconfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the directories of the config files and
+ * reloads the configs that were changed.
+ *
+ * Events are collected until no new event happens for
+ * the debounce time, so a burst of changes to the same
+ * file reloads it only once.
+ */
+class ConfigWatcher implements Runnable {
+
+    private final ConfigParser parser;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+    private final Thread thread;
+
+    ConfigWatcher(ConfigParser parser, long debounceMillis) throws IOException {
+        this.parser = parser;
+        this.debounceMillis = debounceMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(this, "SealConfig Watcher");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void close() {
+        try {
+            watchService.close();
+        } catch(IOException ignored) {}
+    }
+
+    /**
+     * Starts watching the directory of a config file,
+     * if it's not being watched already.
+     */
+    void watch(File configFile) {
+        Path directory = toPath(configFile).getParent();
+        if(directory == null || !directories.add(directory)) return;
+
+        try {
+            keys.put(directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), directory);
+        } catch(IOException | ClosedWatchServiceException e) {
+            directories.remove(directory);
+            parser.logger.warning("Unable to watch the config directory " + directory + ": " + e.getMessage());
+        }
+    }
+
+    static Path toPath(File file) {
+        return file.getAbsoluteFile().toPath().normalize();
+    }
+
+    @Override
+    public void run() {
+        Set<Path> changed = new HashSet<>();
+        boolean overflow = false;
+        long deadline = 0;
+
+        while(true) {
+            WatchKey key;
+            try {
+                if(changed.isEmpty() && !overflow) key = watchService.take();
+                else key = watchService.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch(InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            if(key != null) {
+                Path directory = keys.get(key);
+                for(WatchEvent<?> event : key.pollEvents()) {
+                    if(event.kind() == OVERFLOW) overflow = true;
+                    else if(directory != null) changed.add(directory.resolve((Path) event.context()));
+                }
+
+                if(!key.reset()) {
+                    keys.remove(key);
+                    if(directory != null) directories.remove(directory);
+                }
+
+                deadline = System.currentTimeMillis() + debounceMillis;
+                continue;
+            }
+
+            //Nothing changed during the debounce time, reload what was changed before it
+            parser.reloadChanged(overflow ? null : changed);
+            changed = new HashSet<>();
+            overflow = false;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.focamacho.sealconfig;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads and writes a config field through method handles
+ * created once for the field.
+ *
+ * The handles are created with the same access as the
+ * {@link Field}, so fields that can't be read or written
+ * through reflection can't be through them either. When a
+ * handle fails, like for a value of the wrong type, the
+ * field is accessed through reflection instead, so the
+ * values are converted and the errors are thrown the same
+ * way {@link Field#get(Object)} and
+ * {@link Field#set(Object, Object)} do.
+ */
+final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Field field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private FieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    static FieldAccessor of(Field field) {
+        MethodHandle getter = null;
+        MethodHandle setter = null;
+        if(!Modifier.isStatic(field.getModifiers())) {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                if(!Modifier.isFinal(field.getModifiers())) setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            } catch(IllegalAccessException ignored) {}
+        }
+        return new FieldAccessor(field, getter, setter);
+    }
+
+    Object get(Object instance) throws IllegalAccessException {
+        if(getter != null && instance != null) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch(RuntimeException ignored) {
+                //Thrown again by the field below
+            } catch(Error e) {
+                throw e;
+            } catch(Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+        return field.get(instance);
+    }
+
+    void set(Object instance, Object value) throws IllegalAccessException {
+        if(setter != null && instance != null) {
+            try {
+                setter.invokeExact(instance, value);
+                return;
+            } catch(RuntimeException ignored) {
+                //Values that need a widening conversion, or errors thrown again by the field below
+            } catch(Error e) {
+                throw e;
+            } catch(Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+        field.set(instance, value);
+    }
+
+    /**
+     * Copies the value of this field from an object
+     * to another one of the same class.
+     */
+    void copy(Object from, Object to) throws IllegalAccessException {
+        set(to, get(from));
+    }
+
+}
@@ -0,0 +1,253 @@
+package com.focamacho.sealconfig;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+/**
+ * Size, modification time and hash of the contents of
+ * a config file, used to know if a file was changed.
+ */
+public final class FileFingerprint {
+
+    /**
+     * Coarsest modification time resolution of the common
+     * file systems, the 2 seconds of FAT. Files modified
+     * less than this before their fingerprint was taken may
+     * be written again without their modification time
+     * changing.
+     */
+    private static final long MODIFIED_RESOLUTION = 2000;
+
+    private final long size;
+    private final long lastModified;
+    private final long hash;
+    private final long takenAt;
+
+    /**
+     * Creates a fingerprint whose modification time is not
+     * trusted, so the files are always hashed to be compared.
+     */
+    public FileFingerprint(long size, long lastModified, long hash) {
+        this(size, lastModified, hash, lastModified);
+    }
+
+    /**
+     * @param takenAt the time the size and modification time
+     *                were read from the file.
+     */
+    public FileFingerprint(long size, long lastModified, long hash, long takenAt) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.hash = hash;
+        this.takenAt = takenAt;
+    }
+
+    /**
+     * Reads a file and creates its fingerprint.
+     *
+     * @param file the file to read.
+     * @return the fingerprint of the file contents.
+     */
+    public static FileFingerprint read(File file) throws IOException {
+        long takenAt = System.currentTimeMillis();
+        long lastModified = file.lastModified();
+        CRC32 crc = new CRC32();
+        long size = 0;
+        byte[] buffer = new byte[8192];
+        try(InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        return new FileFingerprint(size, lastModified, crc.getValue(), takenAt);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return the time the size and modification time of
+     * the file were read.
+     */
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    /**
+     * Checks the size and modification time of a file
+     * against this fingerprint, without reading it.
+     *
+     * When the file was modified too close to the time the
+     * fingerprint was taken, a write right after it could
+     * keep the same modification time, so it never matches
+     * and the file must be hashed.
+     *
+     * @param file the file to check.
+     * @return true if the file has the same size and
+     * modification time of this fingerprint.
+     */
+    public boolean matchesStat(File file) {
+        if(takenAt - lastModified < MODIFIED_RESOLUTION) return false;
+        return file.length() == size && file.lastModified() == lastModified;
+    }
+
+    /**
+     * @param fingerprint the fingerprint to compare.
+     * @return true if both fingerprints are of the same
+     * contents, regardless of the modification time.
+     */
+    public boolean sameContents(FileFingerprint fingerprint) {
+        return fingerprint != null && size == fingerprint.size && hash == fingerprint.hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(!(other instanceof FileFingerprint)) return false;
+        FileFingerprint fingerprint = (FileFingerprint) other;
+        return size == fingerprint.size && lastModified == fingerprint.lastModified && hash == fingerprint.hash;
+    }
+
+    @Override
+    public int hashCode() {
+        return (Long.hashCode(size) * 31 + Long.hashCode(lastModified)) * 31 + Long.hashCode(hash);
+    }
+
+    /**
+     * Input stream that creates the fingerprint of a
+     * file while it's read, so it doesn't have to be
+     * read again to be hashed.
+     *
+     * Closing it doesn't close the file stream, which is
+     * left to its owner, so the rest of the file can still
+     * be read after a parser closes it.
+     */
+    public static class HashingInputStream extends FilterInputStream {
+
+        private final CRC32 crc = new CRC32();
+        private final long lastModified;
+        private final long takenAt;
+        private long size = 0;
+
+        /**
+         * @param in the stream of the file.
+         * @param file the file, whose modification time is
+         *             read before its contents.
+         */
+        public HashingInputStream(InputStream in, File file) {
+            super(in);
+            this.takenAt = System.currentTimeMillis();
+            this.lastModified = file.lastModified();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if(b != -1) {
+                crc.update(b);
+                size++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if(read > 0) {
+                crc.update(b, off, read);
+                size += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            int read;
+            while(skipped < n && (read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length))) != -1) skipped += read;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {}
+
+        /**
+         * Reads the rest of the file, which the parser may
+         * have left unread, like the whitespace after the
+         * root object.
+         *
+         * @return the fingerprint of the whole file.
+         */
+        public FileFingerprint readFingerprint() throws IOException {
+            byte[] buffer = new byte[8192];
+            while(read(buffer, 0, buffer.length) != -1);
+            return new FileFingerprint(size, lastModified, crc.getValue(), takenAt);
+        }
+
+    }
+
+    /**
+     * Output stream that creates the fingerprint
+     * of everything written through it.
+     */
+    public static class HashingOutputStream extends FilterOutputStream {
+
+        private final CRC32 crc = new CRC32();
+        private long size = 0;
+
+        public HashingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            size += len;
+        }
+
+        /**
+         * @return the fingerprint of the written contents,
+         * without a modification time.
+         */
+        public FileFingerprint getFingerprint() {
+            return new FileFingerprint(size, 0, crc.getValue());
+        }
+
+        /**
+         * @param file the file written by this stream,
+         *             after it was closed.
+         * @return the fingerprint of the written file.
+         */
+        public FileFingerprint getFingerprint(File file) {
+            long takenAt = System.currentTimeMillis();
+            return new FileFingerprint(size, file.lastModified(), crc.getValue(), takenAt);
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.ConfigClassInfo.FieldInfo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Categories of a config object that were not bound yet.
+ * The parser keeps the values read from the file for each
+ * category, and they are only bound to the config object
+ * the first time the category is accessed.
+ */
+public final class LazyCategories {
+
+    private final Object config;
+    private final Map<FieldInfo, Object> pending;
+    private final Binder binder;
+
+    /**
+     * @param config the config object.
+     * @param pending the fields of the categories that were
+     *                not bound, with the values read by the
+     *                parser for each one.
+     * @param binder binds the values of a category.
+     */
+    public LazyCategories(Object config, Map<FieldInfo, Object> pending, Binder binder) {
+        this.config = config;
+        this.pending = new HashMap<>(pending);
+        this.binder = binder;
+    }
+
+    public Object getConfig() {
+        return config;
+    }
+
+    /**
+     * @return the fields of the categories that were not
+     * bound yet, with the values read by the parser.
+     */
+    public synchronized Map<FieldInfo, Object> getPending() {
+        return new HashMap<>(pending);
+    }
+
+    /**
+     * Returns a category of the config, binding it first
+     * if it was not bound yet.
+     *
+     * @param field the field of the category.
+     */
+    synchronized Object get(FieldInfo field) throws Exception {
+        if(pending.containsKey(field)) {
+            field.set(config, binder.bind(field, pending.get(field)));
+            pending.remove(field);
+        }
+        return field.get(config);
+    }
+
+    static FieldInfo getCategoryField(Object config, Class<?> categoryClass) {
+        FieldInfo field = ConfigClassInfo.of(config.getClass()).getCategory(categoryClass);
+        if(field == null) throw new IllegalArgumentException(categoryClass.getName() + " is not a category of " + config.getClass().getName());
+        return field;
+    }
+
+    static FieldInfo getCategoryField(Object config, String fieldName) {
+        FieldInfo field = ConfigClassInfo.of(config.getClass()).getCategory(fieldName);
+        if(field == null) throw new IllegalArgumentException(fieldName + " is not a category field of " + config.getClass().getName());
+        return field;
+    }
+
+    public interface Binder {
+
+        /**
+         * Creates the object of a category from the values
+         * read by the parser.
+         *
+         * @param field the field of the category.
+         * @param values the values read for the category.
+         * @return the category object.
+         */
+        Object bind(FieldInfo field, Object values) throws Exception;
+
+    }
+
+}
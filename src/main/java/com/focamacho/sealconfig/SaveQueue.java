@@ -0,0 +1,109 @@
+package com.focamacho.sealconfig;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Saves config objects in the background. Saving the
+ * same object again before it's written joins the save
+ * already queued, so it's written only once.
+ */
+class SaveQueue {
+
+    private final ConfigParser parser;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<Object, CompletableFuture<Void>> pending = new IdentityHashMap<>();
+    private volatile Thread thread;
+    private boolean closed = false;
+
+    SaveQueue(ConfigParser parser) {
+        this.parser = parser;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "SealConfig Saver");
+            thread.setDaemon(true);
+            this.thread = thread;
+            return thread;
+        });
+        //The queued saves are written by close, the scheduled ones left are not needed
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    CompletableFuture<Void> save(Object configObject, long windowMillis) {
+        CompletableFuture<Void> future;
+        synchronized(this) {
+            future = pending.get(configObject);
+            if(future != null) return future;
+
+            future = new CompletableFuture<>();
+            pending.put(configObject, future);
+            if(!closed) {
+                scheduler.schedule(() -> write(configObject), windowMillis, TimeUnit.MILLISECONDS);
+                return future;
+            }
+        }
+
+        //Closed, so it's written right away
+        write(configObject);
+        return future;
+    }
+
+    /**
+     * Writes all the queued saves now, and waits for them.
+     */
+    void flush() {
+        List<Object> objects;
+        synchronized(this) {
+            objects = new ArrayList<>(pending.keySet());
+        }
+        objects.forEach(this::write);
+
+        //Waits for a save that was already being written by the queue thread, which can't wait for itself
+        if(Thread.currentThread() == thread) return;
+        try {
+            scheduler.submit(() -> {}).get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException | RejectedExecutionException ignored) {}
+    }
+
+    /**
+     * Writes the queued save of an object now, if it has one.
+     */
+    void flush(Object configObject) {
+        write(configObject);
+    }
+
+    /**
+     * Writes all the queued saves and stops the queue thread.
+     * Saves made after it are written on the calling thread.
+     */
+    void close() {
+        synchronized(this) {
+            closed = true;
+        }
+        flush();
+        scheduler.shutdown();
+    }
+
+    private void write(Object configObject) {
+        CompletableFuture<Void> future;
+        synchronized(this) {
+            future = pending.remove(configObject);
+        }
+        //Already written by a flush
+        if(future == null) return;
+
+        try {
+            parser.saveNow(configObject);
+            future.complete(null);
+        } catch(Exception e) {
+            parser.logger.severe("Error saving a config file:");
+            e.printStackTrace();
+            future.completeExceptionally(e);
+        }
+    }
+
+}
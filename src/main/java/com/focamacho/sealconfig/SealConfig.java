@@ -3,7 +3,10 @@ package com.focamacho.sealconfig;
 import com.focamacho.sealconfig.parser.JanksonParser;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 @SuppressWarnings("unused")
@@ -56,6 +59,48 @@ public class SealConfig {
         return parser.getConfig(configFile, classe);
     }
 
+    /**
+     * Load or creates a new config file, and returns a handle
+     * to it. When the config is reloaded, a new object is
+     * created with the new values and set on the handle,
+     * instead of changing the values of the current object.
+     *
+     * Objects of this config returned before by
+     * {@link #getConfig(File, Class)} are not updated by
+     * reloads anymore, use {@link ConfigHandle#get()} instead.
+     *
+     * @param configFile the config file.
+     * @param classe the config class
+     * @return the handle of the config.
+     */
+    public <T> ConfigHandle<T> getHandle(File configFile, Class<T> classe) {
+        return parser.getHandle(configFile, classe);
+    }
+
+    /**
+     * Unloads the configs of a file. They are not reloaded
+     * or saved anymore, and getting them again loads them
+     * from the file. Unloading doesn't save the configs.
+     *
+     * @param configFile the config file.
+     * @return true if a config of the file was loaded.
+     */
+    public boolean unload(File configFile) {
+        return parser.unload(configFile);
+    }
+
+    /**
+     * Unloads a specific config object. It's not reloaded
+     * or saved anymore, and getting it again loads it from
+     * the file. Unloading doesn't save the object.
+     *
+     * @param configObject the config object to be unloaded.
+     * @return true if the object was loaded.
+     */
+    public boolean unload(Object configObject) {
+        return parser.unload(configObject);
+    }
+
     /**
      * Reloads the already existing config objects.
      * The values on the objects will be updated to the new ones.
@@ -64,6 +109,44 @@ public class SealConfig {
         parser.reload();
     }
 
+    /**
+     * Reloads the already existing config objects, like
+     * {@link #reload()}, returning the files that failed.
+     *
+     * @return the files that failed to reload, with their errors.
+     * If more than one config of a file failed, the errors of the
+     * others are suppressed by the first one.
+     * Empty if every file was reloaded.
+     */
+    public Map<File, Exception> tryReload() {
+        return parser.reload();
+    }
+
+    /**
+     * Starts watching the directories of the config files,
+     * reloading the configs when their files are changed.
+     * Only the files whose contents changed are reloaded,
+     * and the changes made by SealConfig itself are ignored.
+     *
+     * @param debounceMillis time without new changes to wait
+     *                       before reloading the changed files.
+     */
+    public void watch(long debounceMillis) {
+        try {
+            parser.watch(debounceMillis);
+        } catch(IOException e) {
+            logger.severe("Error starting the config watcher:");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stops watching the config files.
+     */
+    public void stopWatching() {
+        parser.stopWatching();
+    }
+
     /**
      * Saves all config objects to their files.
      */
@@ -72,12 +155,73 @@ public class SealConfig {
     }
 
     /**
-     * Saves a specific config object to their file.
+     * Saves all config objects to their files, like
+     * {@link #save()}, returning the files that failed.
+     *
+     * @return the files that failed to save, with their errors.
+     * If more than one config of a file failed, the errors of the
+     * others are suppressed by the first one.
+     * Empty if every file was saved.
+     */
+    public Map<File, Exception> trySave() {
+        return parser.save();
+    }
+
+    /**
+     * Saves only the config objects whose values were changed
+     * since they were last loaded or saved.
+     *
+     * @return the files that failed to save, with their errors.
+     * If more than one config of a file failed, the errors of the
+     * others are suppressed by the first one.
+     * Empty if every changed file was saved.
+     */
+    public Map<File, Exception> saveDirty() {
+        return parser.saveDirty();
+    }
+
+    /**
+     * Saves a specific config object to their file. Objects
+     * that are not loaded, or were unloaded, are not saved
+     * and the error is logged.
      *
      * @param configObject the config object to be saved.
      */
     public void save(Object configObject) {
-        parser.save(configObject);
+        parser.saveConfig(configObject);
+    }
+
+    /**
+     * Saves a specific config object to their file in the
+     * background. The object is written after the save window
+     * of the parser, and saving it again before that doesn't
+     * write it twice.
+     *
+     * @param configObject the config object to be saved.
+     * @return a future completed when the file is written,
+     * or completed exceptionally if it failed to be saved.
+     */
+    public CompletableFuture<Void> saveAsync(Object configObject) {
+        return parser.saveAsync(configObject);
+    }
+
+    /**
+     * Writes all the configs waiting to be saved in the
+     * background, and waits for them. Call it before the
+     * application stops, so no async save is lost.
+     */
+    public void flush() {
+        parser.flush();
+    }
+
+    /**
+     * Writes all the configs waiting to be saved in the
+     * background, and stops the threads of this instance:
+     * the save queue and the file watcher. Async saves made
+     * after it start the save queue again.
+     */
+    public void close() {
+        parser.close();
     }
 
 }
@@ -0,0 +1,58 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.SyntaxError;
+import blue.endless.jankson.api.element.JsonObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Converts config files between the JSON5 format of the
+ * {@link JanksonParser} and the binary format of the
+ * {@link BinaryParser}.
+ *
+ * The binary format has no comments, so converting a file
+ * to it and back loses them. The comments of the config
+ * class are added again when the JSON5 file is loaded.
+ */
+@SuppressWarnings("unused")
+public final class BinaryConverter {
+
+    private BinaryConverter() {}
+
+    /**
+     * Converts a JSON5 config file to the binary format.
+     *
+     * @param json5File the JSON5 file to read.
+     * @param binaryFile the binary file to write.
+     */
+    public static void toBinary(File json5File, File binaryFile) throws IOException, SyntaxError {
+        JsonObject jsonObject;
+        try(Reader reader = new InputStreamReader(new FileInputStream(json5File), StandardCharsets.UTF_8)) {
+            jsonObject = new Json5Reader(reader).readObject();
+        }
+
+        try(OutputStream out = Files.newOutputStream(binaryFile.toPath())) {
+            BinaryParser.write(jsonObject, out);
+        }
+    }
+
+    /**
+     * Converts a binary config file to the JSON5 format.
+     *
+     * @param binaryFile the binary file to read.
+     * @param json5File the JSON5 file to write.
+     */
+    public static void toJson5(File binaryFile, File json5File) throws IOException {
+        JsonObject jsonObject;
+        try(InputStream in = new FileInputStream(binaryFile)) {
+            jsonObject = BinaryParser.read(in);
+        }
+
+        try(OutputStream out = Files.newOutputStream(json5File.toPath())) {
+            JanksonParser.printJson5(jsonObject, out);
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.Jankson;
+import blue.endless.jankson.api.element.JsonElement;
+import blue.endless.jankson.api.element.JsonObject;
+
+import java.io.*;
+
+/**
+ * Parser that stores the configs in a compact binary
+ * format instead of JSON5, for configs that are only
+ * written and read by software.
+ *
+ * The files have no comments or formatting, and their
+ * values are stored as length-prefixed tagged entries.
+ * Use {@link BinaryConverter} to convert them from and
+ * to the JSON5 files of the {@link JanksonParser}.
+ */
+@SuppressWarnings("unused")
+public class BinaryParser extends JanksonParser {
+
+    private static final int MAGIC = 0x53434246;
+    private static final byte VERSION = 1;
+
+    public BinaryParser() {
+        super();
+    }
+
+    public BinaryParser(Jankson jankson) {
+        super(jankson);
+    }
+
+    @Override
+    JsonObject parse(InputStream in) throws Exception {
+        return read(in);
+    }
+
+    @Override
+    JsonObject parse(InputStream in, Json5Reader.Target target) throws Exception {
+        //Binary files are always read whole
+        return read(in);
+    }
+
+    @Override
+    boolean canStream() {
+        return true;
+    }
+
+    @Override
+    void print(JsonObject jsonObject, OutputStream out) throws IOException {
+        write(jsonObject, out);
+    }
+
+    /**
+     * Reads the root object of a binary config file.
+     */
+    static JsonObject read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if(data.readInt() != MAGIC) throw new IOException("Not a binary config file");
+
+        byte version = data.readByte();
+        if(version != VERSION) throw new IOException("Unsupported binary config version: " + version);
+
+        JsonElement element = BinaryTree.read(data, false);
+        if(!(element instanceof JsonObject)) throw new IOException("The root of a binary config file must be an object");
+        return (JsonObject) element;
+    }
+
+    /**
+     * Writes the root object of a binary config file.
+     */
+    static void write(JsonObject jsonObject, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        BinaryTree.write(jsonObject, data, false);
+        data.flush();
+    }
+
+}
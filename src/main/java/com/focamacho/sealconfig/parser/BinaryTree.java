@@ -0,0 +1,290 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.element.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compact binary form of a json tree, optionally with
+ * its comments, that can be read back without parsing text.
+ *
+ * Each element starts with a tag byte. Objects and arrays
+ * have their size followed by their entries, and numbers
+ * keep their exact type, so the tree read is the same as
+ * the one written. Arrays of only longs or only doubles,
+ * without comments, are written as primitive arrays and
+ * read as a {@link JsonNumberArray}.
+ */
+final class BinaryTree {
+
+    private static final byte NULL = 0;
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+    private static final byte STRING = 3;
+    private static final byte TRUE = 4;
+    private static final byte FALSE = 5;
+    private static final byte BYTE = 6;
+    private static final byte SHORT = 7;
+    private static final byte INT = 8;
+    private static final byte LONG = 9;
+    private static final byte FLOAT = 10;
+    private static final byte DOUBLE = 11;
+    private static final byte CHAR = 12;
+    private static final byte BIG_INTEGER = 13;
+    private static final byte BIG_DECIMAL = 14;
+    private static final byte LONG_ARRAY = 15;
+    private static final byte DOUBLE_ARRAY = 16;
+
+    //Deepest nesting of objects and arrays read
+    private static final int MAX_DEPTH = 512;
+    //Strings and number arrays are read in growing chunks, so a corrupted
+    //length fails at the end of the input instead of allocating all of it
+    private static final int CHUNK = 8192;
+
+    private BinaryTree() {}
+
+    static void write(JsonElement element, DataOutput out, boolean comments) throws IOException {
+        if(element == null || element instanceof JsonNull) {
+            out.writeByte(NULL);
+        } else if(element instanceof JsonObject) {
+            JsonObject object = (JsonObject) element;
+            out.writeByte(OBJECT);
+            out.writeInt(object.size());
+            for(Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writeString(entry.getKey(), out);
+                if(comments) writeString(object.getComment(entry.getKey()), out);
+                write(entry.getValue(), out, comments);
+            }
+        } else if(element instanceof JsonNumberArray) {
+            JsonNumberArray array = (JsonNumberArray) element;
+            Class<?> type = array.isDecimal() ? double[].class : long[].class;
+            writeNumberArray(array.toPrimitiveArray(type), out);
+        } else if(element instanceof JsonArray && isNumberArray((JsonArray) element, comments)) {
+            JsonArray array = (JsonArray) element;
+            if(((JsonPrimitive) array.get(0)).getValue() instanceof Long) {
+                long[] values = new long[array.size()];
+                for(int i = 0; i < values.length; i++) values[i] = (Long) ((JsonPrimitive) array.get(i)).getValue();
+                writeNumberArray(values, out);
+            } else {
+                double[] values = new double[array.size()];
+                for(int i = 0; i < values.length; i++) values[i] = (Double) ((JsonPrimitive) array.get(i)).getValue();
+                writeNumberArray(values, out);
+            }
+        } else if(element instanceof JsonArray) {
+            JsonArray array = (JsonArray) element;
+            out.writeByte(ARRAY);
+            out.writeInt(array.size());
+            for(int i = 0; i < array.size(); i++) {
+                if(comments) writeString(array.getComment(i), out);
+                write(array.get(i), out, comments);
+            }
+        } else if(element instanceof JsonPrimitive) {
+            writeValue(((JsonPrimitive) element).getValue(), out);
+        } else {
+            throw new IOException("Unsupported json element: " + element.getClass().getName());
+        }
+    }
+
+    /**
+     * @return if the array isn't empty and has only longs
+     * or only doubles, without comments.
+     */
+    private static boolean isNumberArray(JsonArray array, boolean comments) {
+        if(array.isEmpty()) return false;
+
+        Class<?> type = null;
+        for(int i = 0; i < array.size(); i++) {
+            JsonElement element = array.get(i);
+            if(!(element instanceof JsonPrimitive) || (comments && array.getComment(i) != null)) return false;
+
+            Object value = ((JsonPrimitive) element).getValue();
+            if(!(value instanceof Long) && !(value instanceof Double)) return false;
+            if(type == null) type = value.getClass();
+            else if(type != value.getClass()) return false;
+        }
+        return true;
+    }
+
+    private static void writeNumberArray(Object values, DataOutput out) throws IOException {
+        if(values instanceof long[]) {
+            long[] longs = (long[]) values;
+            out.writeByte(LONG_ARRAY);
+            out.writeInt(longs.length);
+            for(long value : longs) out.writeLong(value);
+        } else {
+            double[] doubles = (double[]) values;
+            out.writeByte(DOUBLE_ARRAY);
+            out.writeInt(doubles.length);
+            for(double value : doubles) out.writeDouble(value);
+        }
+    }
+
+    private static void writeValue(Object value, DataOutput out) throws IOException {
+        if(value instanceof String) {
+            out.writeByte(STRING);
+            writeString((String) value, out);
+        } else if(value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if(value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if(value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if(value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if(value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if(value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if(value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if(value instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character) value);
+        } else if(value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeString(value.toString(), out);
+        } else if(value instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            writeString(value.toString(), out);
+        } else {
+            throw new IOException("Unsupported json value: " + (value == null ? null : value.getClass().getName()));
+        }
+    }
+
+    /**
+     * Reads a tree written by {@link #write(JsonElement, DataOutput, boolean)}.
+     * Truncated or corrupted data throws an IOException.
+     */
+    static JsonElement read(DataInput in, boolean comments) throws IOException {
+        return read(in, comments, 0);
+    }
+
+    private static JsonElement read(DataInput in, boolean comments, int depth) throws IOException {
+        if(depth > MAX_DEPTH) throw new IOException("Binary tree nested deeper than " + MAX_DEPTH);
+
+        byte tag = in.readByte();
+        switch(tag) {
+            case NULL:
+                return JsonNull.INSTANCE;
+            case OBJECT: {
+                int size = readSize(in);
+                JsonObject object = new JsonObject();
+                for(int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    if(key == null) throw new IOException("Invalid null key");
+                    String comment = comments ? readString(in) : null;
+                    object.put(key, read(in, comments, depth + 1), comment);
+                }
+                return object;
+            }
+            case ARRAY: {
+                int size = readSize(in);
+                JsonArray array = new JsonArray();
+                for(int i = 0; i < size; i++) {
+                    String comment = comments ? readString(in) : null;
+                    array.add(read(in, comments, depth + 1), comment);
+                }
+                return array;
+            }
+            case LONG_ARRAY: {
+                int size = readSize(in);
+                if(size == 0) return new JsonArray();
+                long[] values = new long[Math.min(size, CHUNK)];
+                for(int i = 0; i < size; i++) {
+                    if(i == values.length) values = Arrays.copyOf(values, grow(values.length, size));
+                    values[i] = in.readLong();
+                }
+                return JsonNumberArray.ofLongs(values, size);
+            }
+            case DOUBLE_ARRAY: {
+                int size = readSize(in);
+                if(size == 0) return new JsonArray();
+                double[] values = new double[Math.min(size, CHUNK)];
+                for(int i = 0; i < size; i++) {
+                    if(i == values.length) values = Arrays.copyOf(values, grow(values.length, size));
+                    values[i] = in.readDouble();
+                }
+                return JsonNumberArray.ofDoubles(values, size);
+            }
+            case STRING:
+                return new JsonPrimitive(readString(in));
+            case TRUE:
+                return new JsonPrimitive(Boolean.TRUE);
+            case FALSE:
+                return new JsonPrimitive(Boolean.FALSE);
+            case BYTE:
+                return new JsonPrimitive(in.readByte());
+            case SHORT:
+                return new JsonPrimitive(in.readShort());
+            case INT:
+                return new JsonPrimitive(in.readInt());
+            case LONG:
+                return new JsonPrimitive(in.readLong());
+            case FLOAT:
+                return new JsonPrimitive(in.readFloat());
+            case DOUBLE:
+                return new JsonPrimitive(in.readDouble());
+            case CHAR:
+                return new JsonPrimitive(in.readChar());
+            case BIG_INTEGER:
+                return new JsonPrimitive(new BigInteger(readString(in)));
+            case BIG_DECIMAL:
+                return new JsonPrimitive(new BigDecimal(readString(in)));
+            default:
+                throw new IOException("Invalid binary tree tag: " + tag);
+        }
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes, or
+     * -1 for null. Unlike {@link DataOutput#writeUTF(String)},
+     * it has no length limit.
+     */
+    private static void writeString(String string, DataOutput out) throws IOException {
+        if(string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int readSize(DataInput in) throws IOException {
+        int size = in.readInt();
+        if(size < 0) throw new IOException("Invalid size: " + size);
+        return size;
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if(length == -1) return null;
+        if(length < 0) throw new IOException("Invalid string length: " + length);
+        byte[] bytes = new byte[Math.min(length, CHUNK)];
+        int read = 0;
+        while(true) {
+            in.readFully(bytes, read, bytes.length - read);
+            read = bytes.length;
+            if(read == length) return new String(bytes, StandardCharsets.UTF_8);
+            bytes = Arrays.copyOf(bytes, grow(read, length));
+        }
+    }
+
+    private static int grow(int length, int size) {
+        return (int) Math.min(size, length * 2L);
+    }
+
+}
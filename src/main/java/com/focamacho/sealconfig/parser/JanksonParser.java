@@ -1,105 +1,545 @@
 package com.focamacho.sealconfig.parser;
 
 import blue.endless.jankson.api.Jankson;
+import blue.endless.jankson.api.JsonGrammar;
+import blue.endless.jankson.api.Marshaller;
 import blue.endless.jankson.api.element.JsonElement;
 import blue.endless.jankson.api.element.JsonObject;
+import com.focamacho.sealconfig.ConfigClassInfo;
+import com.focamacho.sealconfig.ConfigClassInfo.FieldInfo;
 import com.focamacho.sealconfig.ConfigParser;
-import com.focamacho.sealconfig.annotation.ConfigCategory;
-import org.apache.commons.text.translate.UnicodeUnescaper;
+import com.focamacho.sealconfig.FileFingerprint;
+import com.focamacho.sealconfig.FileFingerprint.HashingInputStream;
+import com.focamacho.sealconfig.FileFingerprint.HashingOutputStream;
+import com.focamacho.sealconfig.LazyCategories;
 
-import java.io.File;
-import java.lang.reflect.Field;
+import java.io.*;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 @SuppressWarnings({"unused", "unchecked"})
 public class JanksonParser extends ConfigParser {
 
-    private static final UnicodeUnescaper unicodeUnescaper = new UnicodeUnescaper();
+    private static final int CACHE_MAGIC = 0x53434302;
+    private static final JsonGrammar grammar = JsonGrammar.SEALCONFIG;
     private final Jankson jankson;
+    private final boolean customJankson;
+    private boolean textRoundTrip = false;
+    private File cacheDirectory = null;
+    private long mapThreshold = 0;
+    private boolean streamCollections = false;
 
     public JanksonParser() {
-        this(Jankson.builder().build());
+        this.jankson = Jankson.builder().build();
+        this.customJankson = false;
     }
 
     public JanksonParser(Jankson jankson) {
         this.jankson = jankson;
+        this.customJankson = true;
+    }
+
+    /**
+     * Sets if the configs should be loaded and saved using
+     * the old text round-trip, where the config objects are
+     * serialized to a string and parsed again before being
+     * bound to the config class or written to the file.
+     *
+     * By default the trees are built, bound and written
+     * directly from the objects.
+     *
+     * @param textRoundTrip true to use the text round-trip.
+     * @return this parser.
+     */
+    public JanksonParser setTextRoundTrip(boolean textRoundTrip) {
+        this.textRoundTrip = textRoundTrip;
+        return this;
+    }
+
+    /**
+     * Sets a directory to cache the loaded configs in a
+     * binary form. When neither the config file nor the
+     * fields of the config class were changed since the
+     * config was cached, it's loaded from the cache without
+     * parsing the file.
+     *
+     * @param cacheDirectory the cache directory, or null to
+     *                       not use a cache.
+     * @return this parser.
+     */
+    public JanksonParser setCacheDirectory(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        return this;
+    }
+
+    /**
+     * Sets the size from which config files are memory-mapped
+     * and parsed directly from the mapped bytes, instead of
+     * being read through a file stream.
+     *
+     * The file is parsed completely and unmapped before the
+     * config is written. Unmapping uses internal JDK classes;
+     * on a JVM without them the mapping is only released when
+     * it's garbage collected, and on Windows saving the config
+     * fails until then.
+     *
+     * @param mapThreshold the minimum size of the files to
+     *                     map, in bytes, or 0 to never map.
+     * @return this parser.
+     */
+    public JanksonParser setMemoryMapThreshold(long mapThreshold) {
+        this.mapThreshold = mapThreshold;
+        return this;
+    }
+
+    /**
+     * Sets if the entries of the map and list fields should
+     * be bound as they are read from the file, instead of
+     * keeping the whole file in a tree before binding it.
+     * Only maps with String keys and lists with a concrete
+     * value type are streamed.
+     *
+     * The files are read with the JSON5 reader of the
+     * {@link Json5Parser}, which creates the same trees as
+     * the default Jankson. A JanksonParser created with its
+     * own Jankson never streams, since that Jankson may read
+     * the files differently. A streamed config is only written
+     * back when keys or comments are missing from its file,
+     * it's not cached, and its categories are always bound
+     * when it's loaded.
+     *
+     * @param streamCollections true to stream the collections.
+     * @return this parser.
+     */
+    public JanksonParser setStreamCollections(boolean streamCollections) {
+        this.streamCollections = streamCollections;
+        return this;
     }
 
     @Override
-    protected void save(Object configObject) {
-        configs.forEach((classe, map) -> map.forEach((file, object) -> {
-            if(configObject == object) {
-                try {
-                    String toSave = unicodeUnescaper.translate(jankson.load(jankson.toJson(configObject).toJson(true, true)).toJson(true, true, 0, 2));
-
-                    if (!file.exists()) {
-                        boolean mk = file.getParentFile().mkdirs();
-                        boolean nf = file.createNewFile();
-                    }
-
-                    Files.write(file.toPath(), toSave.getBytes(StandardCharsets.UTF_8));
-                } catch(Exception e) {
-                    logger.severe("Error saving a config file:");
-                    e.printStackTrace();
-                }
-            }
-        }));
+    protected void save(Object configObject) throws Exception {
+        save(configObject, false);
     }
 
     @Override
-    protected <T> T createConfig(File configFile, Class<T> configClass) {
-        try {
-            JsonObject defaults = jankson.load(jankson.toJson(configClass.getConstructor().newInstance()).toJson(true, true));
+    protected void saveIfDirty(Object configObject) throws Exception {
+        save(configObject, true);
+    }
+
+    private void save(Object configObject, boolean onlyDirty) throws Exception {
+        File file = getConfigFile(configObject);
+        if(file == null) throw new IllegalArgumentException("Not a loaded config object: " + configObject.getClass().getName());
+
+        //Categories that were not bound yet are saved with the values read from the file
+        LazyCategories categories = getLazyCategories(configObject);
+        Map<FieldInfo, Object> pending = categories == null ? null : categories.getPending();
+
+        JsonObject toSave = serialize(configObject);
+        if(pending != null) pending.forEach((field, values) -> toSave.put(field.getName(), (JsonObject) values));
+        Contents contents = print(toSave);
+
+        synchronized(getLock(file)) {
+            //Same contents of the last load or save, the values were not changed
+            if(onlyDirty && contents.fingerprint.sameContents(getFingerprint(file))) return;
+            write(file, contents);
+        }
+    }
+
+    @Override
+    protected <T> T createConfig(File configFile, Class<T> configClass) throws Exception {
+        if(streamCollections && canStream() && configFile.exists()) return createStreamedConfig(configFile, configClass);
+
+        JsonObject configObject = readCache(configFile, configClass);
+        if(configObject == null) {
+            JsonObject defaults = createDefaults(configClass);
 
-            JsonObject configObject;
             if (!configFile.exists()) {
-                boolean mk = configFile.getParentFile().mkdirs();
-                boolean nf = configFile.createNewFile();
                 configObject = defaults;
             } else {
-                configObject = jankson.load(configFile);
+                configObject = load(configFile, null);
                 configObject = checkValues(defaults, configObject, configClass);
             }
 
-            Files.write(configFile.toPath(), unicodeUnescaper.translate(configObject.toJson(true, true, 0, 2)).getBytes(StandardCharsets.UTF_8));
-            T config = jankson.fromJson(configObject.toJson(), configClass);
+            write(configFile, print(configObject));
+            writeCache(configFile, configClass, configObject);
+        }
+
+        if(loadsCategoriesLazily(configFile, configClass)) return createLazyConfig(configFile, configClass, configObject);
+
+        T config = bind(configObject, configClass);
+
+        removeClassDefaults(config, configObject);
+        register(configFile, configClass, config);
+        return config;
+    }
+
+    /**
+     * Loads the config streaming the entries of its maps and
+     * lists into new collections, which are set to the fields
+     * after the rest of the tree is bound.
+     */
+    private <T> T createStreamedConfig(File configFile, Class<T> configClass) throws Exception {
+        T defaultConfig = configClass.getConstructor().newInstance();
+        JsonObject defaults = serialize(defaultConfig);
+        StreamTarget target = new StreamTarget(defaultConfig);
+        JsonObject configObject = load(configFile, target);
+
+        boolean upToDate = isUpToDate(defaults, configObject, configClass);
+        configObject = checkValues(defaults, configObject, configClass);
+        T config = bind(configObject, configClass);
+        removeClassDefaults(config, configObject);
+        target.apply(config);
 
-            Map<File, Object> configs = this.configs.get(configClass);
-            if(configs == null) {
-                this.configs.put(configClass, new HashMap<>());
-                configs = this.configs.get(configClass);
+        //Without entries of the streamed collections the tree can't be written as is
+        if(!target.isStreamed()) {
+            write(configFile, print(configObject));
+        } else if(!upToDate) {
+            write(configFile, print(serialize(config)));
+        }
+
+        register(configFile, configClass, config);
+        return config;
+    }
+
+    /**
+     * @return if the tree has every key and comment of the
+     * defaults, so {@link #checkValues(JsonObject, JsonObject, Class)}
+     * doesn't change it.
+     */
+    private static boolean isUpToDate(JsonObject defaultObject, JsonObject actualObject, Class<?> configClass) {
+        for (Map.Entry<String, JsonElement> entry : defaultObject.entrySet()) {
+            if(!actualObject.containsKey(entry.getKey())) return false;
+            if(!Objects.equals(actualObject.getComment(entry.getKey()), defaultObject.getComment(entry.getKey()))) return false;
+
+            if(actualObject.get(entry.getKey()) instanceof JsonObject && entry.getValue() instanceof JsonObject) {
+                FieldInfo field = ConfigClassInfo.of(configClass).getDeclaredField(entry.getKey());
+                if(field != null && field.isCategory() && !isUpToDate((JsonObject) entry.getValue(), actualObject.getObject(entry.getKey()), field.getType())) return false;
             }
+        }
+        return true;
+    }
 
-            if(configs.get(configFile) == null) {
-                configs.put(configFile, config);
-            } else {
-                setValues(configs.get(configFile), config);
+    /**
+     * Binds the config without its categories, keeping
+     * their values to be bound when they are accessed.
+     */
+    private <T> T createLazyConfig(File configFile, Class<T> configClass, JsonObject configObject) throws Exception {
+        ConfigClassInfo info = ConfigClassInfo.of(configClass);
+        Map<FieldInfo, Object> pending = new HashMap<>();
+        JsonObject toBind = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : configObject.entrySet()) {
+            FieldInfo field = info.getField(entry.getKey());
+            if(field != null && field.isCategory() && entry.getValue() instanceof JsonObject) pending.putIfAbsent(field, entry.getValue());
+            else toBind.put(entry.getKey(), entry.getValue());
+        }
+
+        T config = bind(toBind, configClass);
+        removeClassDefaults(config, toBind);
+        register(configFile, configClass, config, new LazyCategories(config, pending, (field, values) -> {
+            Object category = bind((JsonObject) values, field.getType());
+            removeClassDefaults(category, (JsonObject) values);
+            return category;
+        }));
+        return config;
+    }
+
+    /**
+     * Parses a config file, memory-mapping it when it's
+     * at least as big as the map threshold.
+     *
+     * @param target the target of the streamed collections,
+     *               or null to not stream them.
+     */
+    private JsonObject load(File configFile, Json5Reader.Target target) throws Exception {
+        long size = configFile.length();
+        if(mapThreshold <= 0 || size < mapThreshold || size > Integer.MAX_VALUE) {
+            try(InputStream in = new FileInputStream(configFile)) {
+                return parse(configFile, in, target);
             }
+        }
+
+        MappedByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(configFile.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
 
-            removeClassDefaults(config, configObject);
-            return config;
-        } catch(Exception e) {
-            logger.severe("Error loading a config file:");
-            e.printStackTrace();
+        //The tree is fully decoded from the mapping, so it's released before the file is written again
+        try {
+            return parse(configFile, new ByteBufferInputStream(buffer), target);
+        } finally {
+            if(!Unmapper.unmap(buffer)) logger.fine("Unable to unmap " + configFile + ", it stays mapped until garbage collected");
+        }
+    }
+
+    /**
+     * Parses a config file, hashing it as it's read. Its
+     * fingerprint is set before the config is written back,
+     * so the file isn't read again to know if it has the
+     * same contents.
+     */
+    private JsonObject parse(File configFile, InputStream in, Json5Reader.Target target) throws Exception {
+        HashingInputStream hashing = new HashingInputStream(in, configFile);
+        JsonObject configObject = target == null ? parse(hashing) : parse(hashing, target);
+        setFingerprint(configFile, hashing.readFingerprint());
+        return configObject;
+    }
+
+    /**
+     * Parses the contents of a config file.
+     *
+     * @param in the UTF-8 contents of the file.
+     * @return the root object of the file.
+     */
+    JsonObject parse(InputStream in) throws Exception {
+        return jankson.load(in);
+    }
+
+    /**
+     * @return if {@link #parse(InputStream, Json5Reader.Target)}
+     * creates the same trees as {@link #parse(InputStream)},
+     * so the collections can be streamed.
+     */
+    boolean canStream() {
+        return !customJankson;
+    }
+
+    /**
+     * Parses the contents of a config file, streaming the
+     * entries of the collections chosen by the target.
+     */
+    JsonObject parse(InputStream in, Json5Reader.Target target) throws Exception {
+        return new Json5Reader(new InputStreamReader(in, StandardCharsets.UTF_8)).readObject(target);
+    }
+
+    /**
+     * Reads the cached tree of a config, if the file and
+     * the config class are the same as when it was cached.
+     * The cached tree already has the default values merged,
+     * and is the same tree that was written to the file.
+     *
+     * @return the cached tree, or null if there is none.
+     */
+    private JsonObject readCache(File configFile, Class<?> configClass) {
+        if(cacheDirectory == null || !configFile.exists()) return null;
+
+        File cacheFile = getCacheFile(configFile, configClass);
+        if(!cacheFile.exists()) return null;
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if(in.readInt() != CACHE_MAGIC || in.readLong() != ConfigClassInfo.of(configClass).getSchemaHash()) return null;
+
+            FileFingerprint cached = new FileFingerprint(in.readLong(), in.readLong(), in.readLong(), in.readLong());
+            FileFingerprint fingerprint = cached.matchesStat(configFile) ? cached : FileFingerprint.read(configFile);
+            if(!fingerprint.sameContents(cached)) return null;
+
+            JsonElement element = BinaryTree.read(in, true);
+            if(!(element instanceof JsonObject)) return null;
+
+            setFingerprint(configFile, fingerprint);
+            return (JsonObject) element;
+        } catch(IOException | RuntimeException e) {
+            //A corrupted cache, like an invalid number. It's only a cache, so it's deleted and the file is parsed instead
+            deleteCache(cacheFile);
             return null;
         }
     }
 
+    private void deleteCache(File cacheFile) {
+        try {
+            Files.deleteIfExists(cacheFile.toPath());
+        } catch(IOException e) {
+            logger.warning("Unable to delete the invalid cache file " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    private void writeCache(File configFile, Class<?> configClass, JsonObject configObject) {
+        if(cacheDirectory == null) return;
+
+        FileFingerprint fingerprint = getFingerprint(configFile);
+        if(fingerprint == null) return;
+
+        Path target = getCacheFile(configFile, configClass).toPath();
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            Files.createDirectories(cacheDirectory.toPath());
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CACHE_MAGIC);
+                out.writeLong(ConfigClassInfo.of(configClass).getSchemaHash());
+                out.writeLong(fingerprint.getSize());
+                out.writeLong(fingerprint.getLastModified());
+                out.writeLong(fingerprint.getHash());
+                out.writeLong(fingerprint.getTakenAt());
+                BinaryTree.write(configObject, out, true);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch(AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch(IOException e) {
+            logger.warning("Unable to cache the config file " + configFile + ": " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch(IOException ignored) {}
+        }
+    }
+
+    private File getCacheFile(File configFile, Class<?> configClass) {
+        String key = configFile.getAbsolutePath() + "#" + configClass.getName();
+        return new File(cacheDirectory, configFile.getName() + "." + Integer.toHexString(key.hashCode()) + ".bin");
+    }
+
+    /**
+     * Writes the config to the file, unless the file
+     * already has the same contents.
+     */
+    private void write(File file, Contents contents) throws IOException {
+        if(hasContents(file, contents.fingerprint)) return;
+
+        writeFile(file, contents.bytes::writeTo);
+    }
+
+    /**
+     * Prints the config once, keeping the contents to be
+     * written and their fingerprint to be compared with
+     * the file.
+     */
+    private Contents print(JsonObject jsonObject) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HashingOutputStream out = new HashingOutputStream(bytes);
+        print(jsonObject, out);
+        return new Contents(bytes, out.getFingerprint());
+    }
+
+    private static final class Contents {
+
+        private final ByteArrayOutputStream bytes;
+        private final FileFingerprint fingerprint;
+
+        private Contents(ByteArrayOutputStream bytes, FileFingerprint fingerprint) {
+            this.bytes = bytes;
+            this.fingerprint = fingerprint;
+        }
+
+    }
+
+    /**
+     * Writes the contents of a config file.
+     *
+     * @param jsonObject the root object of the file.
+     * @param out the stream of the file.
+     */
+    void print(JsonObject jsonObject, OutputStream out) throws IOException {
+        printJson5(jsonObject, out);
+    }
+
+    /**
+     * Writes a json object the same way the config files
+     * are written by this parser, as UTF-8 JSON5.
+     */
+    static void printJson5(JsonObject jsonObject, OutputStream out) throws IOException {
+        try(Writer writer = writer(out)) {
+            jsonObject.toJson(writer, grammar, 0);
+        }
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new UnicodeUnescapingWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    private JsonObject createDefaults(Class<?> configClass) throws Exception {
+        return serialize(configClass.getConstructor().newInstance());
+    }
+
+    private JsonObject serialize(Object object) throws Exception {
+        if(!textRoundTrip) {
+            JsonElement element = jankson.toJson(object);
+            if(element instanceof JsonObject) return (JsonObject) element;
+        }
+        return jankson.load(jankson.toJson(object).toJson(true, true));
+    }
+
+    private <T> T bind(JsonObject configObject, Class<T> configClass) throws Exception {
+        if(textRoundTrip) return jankson.fromJson(configObject.toJson(), configClass);
+
+        T config = jankson.fromJson(withoutNumberArrays(configObject, configClass), configClass);
+        bindNumberArrays(config, configObject);
+        return config;
+    }
+
+    /**
+     * Creates a copy of the tree without the number arrays
+     * of int[], long[] and double[] fields, so Jankson doesn't
+     * create an element for each of their values, and with
+     * the other number arrays as plain json arrays. Returns
+     * the same tree if it has none.
+     */
+    private static JsonObject withoutNumberArrays(JsonObject jsonObject, Class<?> type) {
+        ConfigClassInfo info = ConfigClassInfo.of(type);
+        JsonObject copy = null;
+        int index = 0;
+        for (Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+            JsonElement value = entry.getValue();
+            JsonElement replacement;
+
+            FieldInfo field = info.getField(entry.getKey());
+            if(field != null && isBoundNumberArray(field, value)) replacement = null;
+            else if(field != null && field.isCategory() && value instanceof JsonObject) replacement = withoutNumberArrays((JsonObject) value, field.getType());
+            else replacement = JsonNumberArray.plain(value);
+
+            if(copy == null && replacement != value) {
+                //Copies the entries before this one
+                copy = new JsonObject();
+                int copied = 0;
+                for (Map.Entry<String, JsonElement> previous : jsonObject.entrySet()) {
+                    if(copied++ == index) break;
+                    copy.put(previous.getKey(), previous.getValue(), jsonObject.getComment(previous.getKey()));
+                }
+            }
+            if(copy != null && replacement != null) copy.put(entry.getKey(), replacement, jsonObject.getComment(entry.getKey()));
+            index++;
+        }
+        return copy != null ? copy : jsonObject;
+    }
+
+    /**
+     * Sets the int[], long[] and double[] fields left out by
+     * {@link #withoutNumberArrays(JsonObject, Class)} directly
+     * from their number arrays.
+     */
+    private static void bindNumberArrays(Object config, JsonObject jsonObject) throws IllegalAccessException {
+        for (FieldInfo field : ConfigClassInfo.of(config.getClass()).getFields()) {
+            JsonElement value = jsonObject.get(field.getName());
+            if(isBoundNumberArray(field, value)) {
+                field.set(config, ((JsonNumberArray) value).toPrimitiveArray(field.getType()));
+            } else if(field.isCategory() && value instanceof JsonObject) {
+                Object category = field.get(config);
+                if(category != null) bindNumberArrays(category, (JsonObject) value);
+            }
+        }
+    }
+
+    private static boolean isBoundNumberArray(FieldInfo field, JsonElement value) {
+        return value instanceof JsonNumberArray && JsonNumberArray.isNumberArrayType(field.getType());
+    }
+
     private JsonObject checkValues(JsonObject defaultObject, JsonObject actualObject, Class<?> configClass) {
         for (Map.Entry<String, JsonElement> entry : defaultObject.entrySet()) {
             if(!actualObject.containsKey(entry.getKey())) actualObject = applyDefaults(defaultObject, actualObject);
                 //Check if the value is not a JsonObject that also needs to be check
-            else if(actualObject.get(entry.getKey()) instanceof JsonObject) {
-                try {
-                    Field field = configClass.getDeclaredField(entry.getKey());
-                    Class<?> fieldType = field.getType();
-                    if(fieldType.isAnnotationPresent(ConfigCategory.class)) {
-                        actualObject.put(entry.getKey(), checkValues((JsonObject) entry.getValue(), actualObject.getObject(entry.getKey()), field.getType()));
-                    }
-                } catch(Exception ignored) {}
+            else if(actualObject.get(entry.getKey()) instanceof JsonObject && entry.getValue() instanceof JsonObject) {
+                FieldInfo field = ConfigClassInfo.of(configClass).getDeclaredField(entry.getKey());
+                if(field != null && field.isCategory()) {
+                    actualObject.put(entry.getKey(), checkValues((JsonObject) entry.getValue(), actualObject.getObject(entry.getKey()), field.getType()));
+                }
             }
         }
 
@@ -121,8 +561,7 @@ public class JanksonParser extends ConfigParser {
 
     private void removeClassDefaults(Object config, JsonObject configObject) {
         try {
-            Field[] fields = config.getClass().getFields();
-            for (Field field : fields) {
+            for (FieldInfo field : ConfigClassInfo.of(config.getClass()).getFields()) {
                 JsonObject jsonObject = configObject.getObject(field.getName());
                 if(jsonObject == null) continue;
 
@@ -138,4 +577,133 @@ public class JanksonParser extends ConfigParser {
         } catch(Exception ignored) {}
     }
 
+    /**
+     * Streams the map and list fields of a config class,
+     * and of its categories, into new collections.
+     */
+    private final class StreamTarget implements Json5Reader.Target {
+
+        private final Object defaults;
+        private final ConfigClassInfo info;
+        private final Map<FieldInfo, Object> collections = new HashMap<>();
+        private final Map<FieldInfo, StreamTarget> categories = new HashMap<>();
+
+        /**
+         * @param defaults an instance of the class with its
+         *                 default values.
+         */
+        private StreamTarget(Object defaults) {
+            this.defaults = defaults;
+            this.info = ConfigClassInfo.of(defaults.getClass());
+        }
+
+        @Override
+        public Json5Reader.Target object(String key) {
+            FieldInfo field = forget(key);
+            if(field == null || !field.isCategory()) return null;
+
+            try {
+                Object category = field.get(defaults);
+                if(category == null) return null;
+
+                StreamTarget target = new StreamTarget(category);
+                categories.put(field, target);
+                return target;
+            } catch(IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public Json5Reader.Sink collection(String key, boolean array) {
+            FieldInfo field = forget(key);
+            if(field == null || field.isCategory()) return null;
+            if(!(array ? List.class : Map.class).isAssignableFrom(field.getType())) return null;
+
+            Type type = field.getField().getGenericType();
+            if(!(type instanceof ParameterizedType)) return null;
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if(!array && arguments[0] != String.class) return null;
+            Type valueType = arguments[array ? 0 : 1];
+            if(!(valueType instanceof Class) && !(valueType instanceof ParameterizedType)) return null;
+
+            Object collection = newCollection(field);
+            if(collection == null) return null;
+            collections.put(field, collection);
+
+            Marshaller marshaller = jankson.getMarshaller();
+            if(array) {
+                List<Object> list = (List<Object>) collection;
+                return (entryKey, value) -> list.add(marshaller.marshall(valueType, JsonNumberArray.plain(value)));
+            }
+            Map<String, Object> map = (Map<String, Object>) collection;
+            return (entryKey, value) -> map.put(entryKey, marshaller.marshall(valueType, JsonNumberArray.plain(value)));
+        }
+
+        @Override
+        public void value(String key) {
+            forget(key);
+        }
+
+        /**
+         * Forgets what was streamed for an earlier entry of the
+         * same field. The tree keeps the last entry of keys that
+         * are the same ignoring case, so the streamed values must
+         * be of the last one too.
+         *
+         * @return the field of the key, or null if there is none.
+         */
+        private FieldInfo forget(String key) {
+            FieldInfo field = info.getField(key);
+            if(field != null) {
+                collections.remove(field);
+                categories.remove(field);
+            }
+            return field;
+        }
+
+        /**
+         * Creates an empty collection of the same class as the
+         * default value of the field, or a {@link LinkedHashMap}
+         * or {@link ArrayList} if it can't be created.
+         */
+        private Object newCollection(FieldInfo field) {
+            Class<?> type = field.getType();
+            try {
+                Object current = field.get(defaults);
+                if(current != null) return current.getClass().getConstructor().newInstance();
+            } catch(ReflectiveOperationException ignored) {}
+
+            Class<?> fallback = Map.class.isAssignableFrom(type) ? LinkedHashMap.class : ArrayList.class;
+            try {
+                return (type.isAssignableFrom(fallback) ? fallback : type).getConstructor().newInstance();
+            } catch(ReflectiveOperationException e) {
+                return null;
+            }
+        }
+
+        /**
+         * @return if the entries of any collection were
+         * streamed, and so are missing from the tree.
+         */
+        private boolean isStreamed() {
+            if(!collections.isEmpty()) return true;
+            for (StreamTarget category : categories.values()) if(category.isStreamed()) return true;
+            return false;
+        }
+
+        /**
+         * Sets the streamed collections to the fields of the
+         * bound config object.
+         */
+        private void apply(Object config) throws IllegalAccessException {
+            for (Map.Entry<FieldInfo, Object> entry : collections.entrySet()) entry.getKey().set(config, entry.getValue());
+            for (Map.Entry<FieldInfo, StreamTarget> entry : categories.entrySet()) {
+                Object category = entry.getKey().get(config);
+                if(category != null) entry.getValue().apply(category);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,40 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.Jankson;
+import blue.endless.jankson.api.element.JsonObject;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parser that reads the config files with a hand-written
+ * JSON5 reader, faster than the Jankson one on big files.
+ *
+ * It reads every file the {@link JanksonParser} reads and
+ * creates the same tree, so the configs are bound, merged
+ * with their defaults and written the same way.
+ */
+@SuppressWarnings("unused")
+public class Json5Parser extends JanksonParser {
+
+    public Json5Parser() {
+        super();
+    }
+
+    public Json5Parser(Jankson jankson) {
+        super(jankson);
+    }
+
+    @Override
+    JsonObject parse(InputStream in) throws Exception {
+        return new Json5Reader(new InputStreamReader(in, StandardCharsets.UTF_8)).readObject();
+    }
+
+    @Override
+    boolean canStream() {
+        //The files are always read with the JSON5 reader, whatever the Jankson is
+        return true;
+    }
+
+}
@@ -0,0 +1,649 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.SyntaxError;
+import blue.endless.jankson.api.element.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Hand-written reader of the JSON5 files written by SealConfig,
+ * accepting everything the Jankson parser accepts: comments,
+ * quoted and unquoted keys, single quoted strings, optional and
+ * trailing commas, hexadecimal numbers, Infinity and NaN.
+ *
+ * It creates the same tree the Jankson parser does, keeping the
+ * comments before each value and the ones to its right on the
+ * same line, but reads from its own buffer and reuses the same
+ * builder for every key, string and comment.
+ * Arrays of only integers or only decimals, without comments,
+ * are read into a {@link JsonNumberArray}.
+ *
+ * Given a {@link Target}, the entries of chosen maps and lists
+ * are handed to it one at a time as they are read, instead of
+ * being kept in the tree.
+ */
+final class Json5Reader {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+    private int line = 1;
+
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder comments = new StringBuilder();
+
+    private static final int OTHER = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int BIG_INTEGER = 3;
+    //Kind and value of the last unquoted word read
+    private int wordKind;
+    private long longValue;
+    private double doubleValue;
+    private BigInteger bigValue;
+
+    Json5Reader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the root object of the file.
+     */
+    JsonObject readObject() throws IOException, SyntaxError {
+        return readObject(null);
+    }
+
+    /**
+     * Reads the root object of the file, streaming the
+     * entries of the collections chosen by the target.
+     * Those collections are left empty in the tree.
+     *
+     * @param target the target of the root object, or null
+     *               to keep everything in the tree.
+     */
+    JsonObject readObject(Target target) throws IOException, SyntaxError {
+        //Byte order mark
+        if(peek() == 0xFEFF) position++;
+
+        skip();
+        if(peek() != '{') throw error("Expected '{' at the start of the file");
+        position++;
+        takeComment();
+        return readObjectBody(target);
+    }
+
+    private JsonObject readObjectBody(Target target) throws IOException, SyntaxError {
+        JsonObject object = new JsonObject();
+        while(true) {
+            skip();
+            int c = peek();
+            if(c == '}') {
+                position++;
+                takeComment();
+                return object;
+            }
+            if(c == -1) throw error("Unexpected end of file inside an object");
+
+            String comment = takeComment();
+            String key = readKey();
+            skip();
+            if(peek() != ':') throw error("Expected ':' after the key \"" + key + "\"");
+            position++;
+
+            skip();
+            JsonElement value = target == null ? readValue() : readValue(key, target);
+            if(comment == null) comment = takeComment();
+            boolean comma = skipTrailing();
+            object.put(key, value, join(comment, takeComment()));
+
+            if(!comma) skipComma();
+        }
+    }
+
+    private JsonArray readArrayBody() throws IOException, SyntaxError {
+        //The values are kept in a primitive array until one that can't be is read
+        long[] longs = null;
+        double[] doubles = null;
+        int size = 0;
+        JsonArray array = null;
+
+        while(true) {
+            skip();
+            int c = peek();
+            if(c == ']') {
+                position++;
+                takeComment();
+                if(array != null) return array;
+                if(longs != null) return JsonNumberArray.ofLongs(longs, size);
+                if(doubles != null) return JsonNumberArray.ofDoubles(doubles, size);
+                return new JsonArray();
+            }
+            if(c == -1) throw error("Unexpected end of file inside an array");
+
+            String comment = takeComment();
+            if(array == null && comment == null && isWordStart(c)) {
+                readWordText();
+                if(wordKind == LONG && doubles == null) {
+                    if(longs == null) longs = new long[16];
+                    else if(size == longs.length) longs = Arrays.copyOf(longs, size * 2);
+                    longs[size++] = longValue;
+                } else if(wordKind == DOUBLE && longs == null) {
+                    if(doubles == null) doubles = new double[16];
+                    else if(size == doubles.length) doubles = Arrays.copyOf(doubles, size * 2);
+                    doubles[size++] = doubleValue;
+                } else {
+                    array = toJsonArray(longs, doubles, size);
+                    array.add(wordElement(), null);
+                }
+            } else {
+                if(array == null) array = toJsonArray(longs, doubles, size);
+                array.add(readValue(), comment);
+            }
+
+            boolean comma = skipTrailing();
+            String trailing = takeComment();
+            if(trailing != null) {
+                //Arrays with comments are never primitive
+                if(array == null) array = toJsonArray(longs, doubles, size);
+                int last = array.size() - 1;
+                array.setComment(last, join(array.getComment(last), trailing));
+            }
+
+            if(!comma) skipComma();
+        }
+    }
+
+    /**
+     * Reads the value of a key of an object with a target,
+     * streaming it or descending into it when the target
+     * asks to.
+     */
+    private JsonElement readValue(String key, Target target) throws IOException, SyntaxError {
+        int c = peek();
+        if(c != '{' && c != '[') {
+            target.value(key);
+            return readValue();
+        }
+
+        Sink sink = target.collection(key, c == '[');
+        if(sink != null) {
+            position++;
+            if(c == '{') streamObject(sink);
+            else streamArray(sink);
+            return c == '{' ? new JsonObject() : new JsonArray();
+        }
+
+        if(c == '{') {
+            Target child = target.object(key);
+            position++;
+            return readObjectBody(child);
+        }
+        return readValue();
+    }
+
+    private void streamObject(Sink sink) throws IOException, SyntaxError {
+        while(true) {
+            skip();
+            int c = peek();
+            if(c == '}') {
+                position++;
+                takeComment();
+                return;
+            }
+            if(c == -1) throw error("Unexpected end of file inside an object");
+
+            takeComment();
+            String key = readKey();
+            skip();
+            if(peek() != ':') throw error("Expected ':' after the key \"" + key + "\"");
+            position++;
+
+            skip();
+            sink.entry(key, readValue());
+            boolean comma = skipTrailing();
+            takeComment();
+
+            if(!comma) skipComma();
+        }
+    }
+
+    private void streamArray(Sink sink) throws IOException, SyntaxError {
+        while(true) {
+            skip();
+            int c = peek();
+            if(c == ']') {
+                position++;
+                takeComment();
+                return;
+            }
+            if(c == -1) throw error("Unexpected end of file inside an array");
+
+            takeComment();
+            sink.entry(null, readValue());
+            boolean comma = skipTrailing();
+            takeComment();
+
+            if(!comma) skipComma();
+        }
+    }
+
+    private static JsonArray toJsonArray(long[] longs, double[] doubles, int size) {
+        JsonArray array = new JsonArray();
+        for(int i = 0; i < size; i++) array.add(new JsonPrimitive(longs != null ? (Object) longs[i] : (Object) doubles[i]));
+        return array;
+    }
+
+    private static boolean isWordStart(int c) {
+        return c != '{' && c != '[' && c != '"' && c != '\'';
+    }
+
+    private String readKey() throws IOException, SyntaxError {
+        int c = peek();
+        if(c == '"' || c == '\'') {
+            position++;
+            return readString((char) c);
+        }
+
+        //Unquoted keys are identifiers
+        if(c == -1 || !isIdentifierStart(c)) throw error(c == -1 ? "Expected a key" : "Unexpected character '" + (char) c + "', expected a key");
+        text.setLength(0);
+        while((c = peek()) != -1 && isIdentifierPart(c)) {
+            text.append((char) c);
+            position++;
+        }
+        return text.toString();
+    }
+
+    private static boolean isIdentifierStart(int c) {
+        return Character.isLetter(c) || c == '$' || c == '_';
+    }
+
+    private static boolean isIdentifierPart(int c) {
+        return Character.isLetterOrDigit(c) || c == '$' || c == '_' || c == '\u200C' || c == '\u200D';
+    }
+
+    private JsonElement readValue() throws IOException, SyntaxError {
+        int c = peek();
+        switch(c) {
+            case '{':
+                position++;
+                return readObjectBody(null);
+            case '[':
+                position++;
+                return readArrayBody();
+            case '"':
+            case '\'':
+                position++;
+                return new JsonPrimitive(readString((char) c));
+            case -1:
+                throw error("Unexpected end of file, expected a value");
+            default:
+                return readWord();
+        }
+    }
+
+    private String readString(char quote) throws IOException, SyntaxError {
+        text.setLength(0);
+        while(true) {
+            int c = read();
+            if(c == -1) throw error("Unexpected end of file inside a string");
+            if(c == quote) return text.toString();
+            if(c == '\n') line++;
+            if(c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+
+            c = read();
+            switch(c) {
+                case 'b': text.append('\b'); break;
+                case 'f': text.append('\f'); break;
+                case 'n': text.append('\n'); break;
+                case 'r': text.append('\r'); break;
+                case 't': text.append('\t'); break;
+                case 'u': text.append(readHex(4)); break;
+                case 'x': text.append(readHex(2)); break;
+                //Line continuation
+                case '\r':
+                    if(peek() == '\n') position++;
+                    line++;
+                    break;
+                case '\n':
+                    line++;
+                    break;
+                case -1:
+                    throw error("Unexpected end of file inside a string");
+                default:
+                    text.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Reads the hexadecimal digits of a unicode escape, with
+     * 4 digits, or of a hexadecimal one, with 2.
+     */
+    private char readHex(int digits) throws IOException, SyntaxError {
+        int value = 0;
+        for(int i = 0; i < digits; i++) {
+            int digit = Character.digit(read(), 16);
+            if(digit == -1) throw error(digits == 4 ? "Invalid unicode escape" : "Invalid hexadecimal escape");
+            value = value * 16 + digit;
+        }
+        return (char) value;
+    }
+
+    /**
+     * Reads an unquoted value: a boolean, null or a number.
+     */
+    private JsonElement readWord() throws IOException, SyntaxError {
+        readWordText();
+        return wordElement();
+    }
+
+    private JsonElement wordElement() throws SyntaxError {
+        if(wordKind == LONG) return new JsonPrimitive(longValue);
+        if(wordKind == DOUBLE) return new JsonPrimitive(doubleValue);
+        if(wordKind == BIG_INTEGER) return new JsonPrimitive(bigValue);
+
+        String word = text.toString();
+        switch(word) {
+            case "true": return new JsonPrimitive(Boolean.TRUE);
+            case "false": return new JsonPrimitive(Boolean.FALSE);
+            case "null": return JsonNull.INSTANCE;
+        }
+
+        try {
+            return new JsonPrimitive(new BigInteger(word));
+        } catch(NumberFormatException e) {
+            throw error("Invalid value '" + word + "'");
+        }
+    }
+
+    /**
+     * Reads an unquoted word to the text builder, parsing
+     * it when it's a number. Integers are parsed without
+     * creating a string.
+     */
+    private void readWordText() throws IOException, SyntaxError {
+        text.setLength(0);
+        int c;
+        while((c = peek()) != -1 && (Character.isLetterOrDigit(c) || c == '.' || c == '+' || c == '-')) {
+            text.append((char) c);
+            position++;
+        }
+        if(text.length() == 0) throw error("Unexpected character '" + (char) c + "'");
+
+        wordKind = OTHER;
+        int length = text.length();
+        char first = text.charAt(0);
+        boolean negative = first == '-';
+        int start = negative || first == '+' ? 1 : 0;
+
+        if(length > start + 1 && text.charAt(start) == '0' && (text.charAt(start + 1) == 'x' || text.charAt(start + 1) == 'X')) {
+            //Hexadecimal, signed like the decimal integers, with the ones that don't fit a long as BigInteger
+            if(length == start + 2) throw error("Invalid value '" + text + "'");
+            for(int i = start + 2; i < length; i++) {
+                if(Character.digit(text.charAt(i), 16) == -1) throw error("Invalid value '" + text + "'");
+            }
+            BigInteger value = new BigInteger(text.substring(start + 2), 16);
+            if(negative) value = value.negate();
+            if(value.bitLength() < 64) {
+                longValue = value.longValue();
+                wordKind = LONG;
+            } else {
+                bigValue = value;
+                wordKind = BIG_INTEGER;
+            }
+            return;
+        }
+
+        boolean digits = length > start;
+        for(int i = start; i < length; i++) {
+            char digit = text.charAt(i);
+            if(digit == '.' || digit == 'e' || digit == 'E' || digit == 'I' || digit == 'N') {
+                parseDecimal(start);
+                return;
+            }
+            if(digit < '0' || digit > '9') digits = false;
+        }
+        if(!digits) return;
+
+        //Accumulates negatively, so Long.MIN_VALUE fits, and leaves overflows to BigInteger
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        for(int i = start; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if(value < limit / 10) return;
+            value *= 10;
+            if(value < limit + digit) return;
+            value -= digit;
+        }
+        longValue = negative ? value : -value;
+        wordKind = LONG;
+    }
+
+    private void parseDecimal(int start) throws SyntaxError {
+        String word = text.toString();
+        switch(word.substring(start)) {
+            case "true":
+            case "false":
+            case "null":
+                if(start == 0) return;
+                break;
+            case "Infinity":
+                doubleValue = word.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                wordKind = DOUBLE;
+                return;
+            case "NaN":
+                doubleValue = Double.NaN;
+                wordKind = DOUBLE;
+                return;
+        }
+
+        try {
+            doubleValue = Double.parseDouble(word);
+            wordKind = DOUBLE;
+        } catch(NumberFormatException e) {
+            throw error("Invalid value '" + word + "'");
+        }
+    }
+
+    /**
+     * Skips whitespace and comments, keeping the text of the
+     * comments for the next value.
+     */
+    private void skip() throws IOException, SyntaxError {
+        while(true) {
+            int c = peek();
+            if(c == '\n') {
+                line++;
+                position++;
+            } else if(c != -1 && Character.isWhitespace(c)) {
+                position++;
+            } else if(c == '#') {
+                position++;
+                readLineComment();
+            } else if(c == '/') {
+                position++;
+                int next = read();
+                if(next == '/') readLineComment();
+                else if(next == '*') readBlockComment();
+                else throw error("Unexpected character '/'");
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Skips the whitespace and comments to the right of a
+     * value, on the same line, and the comma after it. The
+     * text of those comments is kept for the value, like the
+     * Jankson parser does, see {@link JsonObject#getComment(String)}.
+     *
+     * @return true if the comma after the value was read.
+     */
+    private boolean skipTrailing() throws IOException, SyntaxError {
+        boolean comma = false;
+        while(true) {
+            int c = peek();
+            if(c == ',' && !comma) {
+                comma = true;
+                position++;
+            } else if(c != -1 && c != '\n' && c != '\r' && Character.isWhitespace(c)) {
+                position++;
+            } else if(c == '#') {
+                position++;
+                readLineComment();
+            } else if(c == '/') {
+                position++;
+                int next = read();
+                if(next == '/') readLineComment();
+                else if(next == '*') readBlockComment();
+                else throw error("Unexpected character '/'");
+            } else {
+                return comma;
+            }
+        }
+    }
+
+    /**
+     * Skips the comma after a value when it's not on the
+     * same line of the value.
+     */
+    private void skipComma() throws IOException, SyntaxError {
+        skip();
+        if(peek() == ',') position++;
+    }
+
+    private static String join(String comment, String trailing) {
+        if(trailing == null) return comment;
+        return comment == null ? trailing : comment + "\n" + trailing;
+    }
+
+    private void readLineComment() throws IOException {
+        text.setLength(0);
+        int c;
+        while((c = peek()) != -1 && c != '\n' && c != '\r') {
+            text.append((char) c);
+            position++;
+        }
+        addComment(text.toString().trim());
+    }
+
+    /**
+     * Reads a block comment, removing the leading '*' of
+     * each line of multiple line comments.
+     */
+    private void readBlockComment() throws IOException, SyntaxError {
+        text.setLength(0);
+        while(true) {
+            int c = read();
+            if(c == -1) throw error("Unexpected end of file inside a comment");
+            if(c == '*' && peek() == '/') {
+                position++;
+                break;
+            }
+            if(c == '\n') line++;
+            text.append((char) c);
+        }
+
+        String[] lines = text.toString().split("\r?\n", -1);
+        StringBuilder comment = new StringBuilder();
+        for(int i = 0; i < lines.length; i++) {
+            String commentLine = lines[i].trim();
+            if(lines.length > 1 && commentLine.startsWith("*")) commentLine = commentLine.substring(1).trim();
+            if(commentLine.isEmpty() && (i == 0 || i == lines.length - 1)) continue;
+
+            if(comment.length() > 0) comment.append('\n');
+            comment.append(commentLine);
+        }
+        addComment(comment.toString());
+    }
+
+    private void addComment(String comment) {
+        if(comment.isEmpty()) return;
+        if(comments.length() > 0) comments.append('\n');
+        comments.append(comment);
+    }
+
+    private String takeComment() {
+        if(comments.length() == 0) return null;
+        String comment = comments.toString();
+        comments.setLength(0);
+        return comment;
+    }
+
+    private int peek() throws IOException {
+        if(position == limit && !fill()) return -1;
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if(position == limit && !fill()) return -1;
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if(read <= 0) return false;
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private SyntaxError error(String message) {
+        return new SyntaxError(message + " (line " + line + ")");
+    }
+
+    /**
+     * Chooses the maps and lists of an object whose entries
+     * are streamed.
+     */
+    interface Target {
+
+        /**
+         * @param key the key of an object inside this one.
+         * @return the target of that object, or null to keep
+         * all of it in the tree.
+         */
+        Target object(String key);
+
+        /**
+         * @param key the key of a map or list.
+         * @param array if the value is an array.
+         * @return the sink of its entries, or null to keep
+         * it in the tree.
+         */
+        Sink collection(String key, boolean array);
+
+        /**
+         * Called for the keys whose values are not objects or
+         * arrays, which are always kept in the tree.
+         *
+         * @param key the key of the value.
+         */
+        void value(String key);
+
+    }
+
+    /**
+     * Receives the entries of a streamed map or list.
+     */
+    interface Sink {
+
+        /**
+         * @param key the key of the entry, or null for the
+         *            values of a list.
+         * @param value the value of the entry.
+         */
+        void entry(String key, JsonElement value) throws SyntaxError;
+
+    }
+
+}
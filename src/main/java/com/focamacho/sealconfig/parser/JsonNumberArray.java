@@ -0,0 +1,257 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.JsonGrammar;
+import blue.endless.jankson.api.element.JsonArray;
+import blue.endless.jankson.api.element.JsonElement;
+import blue.endless.jankson.api.element.JsonObject;
+import blue.endless.jankson.api.element.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Json array of numbers kept in a primitive array, so
+ * reading, binding and writing an int[], long[] or double[]
+ * field doesn't create an object for each value.
+ *
+ * The array holds either only integers, as longs, or only
+ * decimals, as doubles, and can't be changed. It's only
+ * used by the parsers of this package: the readers create
+ * it, and the parser binds or writes it directly, or
+ * replaces it with a plain {@link JsonArray} through
+ * {@link #plain(JsonElement)} before a tree is given to
+ * Jankson. Its values are not in the list of the
+ * {@link JsonArray}, so it must never be used as a list.
+ */
+final class JsonNumberArray extends JsonArray {
+
+    private final long[] longs;
+    private final double[] doubles;
+    private final int length;
+
+    private JsonNumberArray(long[] longs, double[] doubles, int length) {
+        this.longs = longs;
+        this.doubles = doubles;
+        this.length = length;
+    }
+
+    /**
+     * @param values the integers of the array.
+     * @param length how many of the values are used.
+     */
+    static JsonNumberArray ofLongs(long[] values, int length) {
+        return new JsonNumberArray(values, null, length);
+    }
+
+    /**
+     * @param values the decimals of the array.
+     * @param length how many of the values are used.
+     */
+    static JsonNumberArray ofDoubles(double[] values, int length) {
+        return new JsonNumberArray(null, values, length);
+    }
+
+    /**
+     * @param type a field type.
+     * @return if the type is int[], long[] or double[].
+     */
+    static boolean isNumberArrayType(Class<?> type) {
+        return type == int[].class || type == long[].class || type == double[].class;
+    }
+
+    /**
+     * @return how many values the array has.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * @return if the values are decimals.
+     */
+    boolean isDecimal() {
+        return doubles != null;
+    }
+
+    /**
+     * Creates an int[], long[] or double[] with the values
+     * of this array, converted the same way Jankson does.
+     *
+     * @param type the type of the array to create.
+     * @return the new array.
+     */
+    Object toPrimitiveArray(Class<?> type) {
+        if(type == int[].class) {
+            int[] array = new int[length];
+            for(int i = 0; i < length; i++) array[i] = longs != null ? (int) longs[i] : (int) doubles[i];
+            return array;
+        } else if(type == long[].class) {
+            return longs != null ? Arrays.copyOf(longs, length) : toLongs();
+        } else if(type == double[].class) {
+            return doubles != null ? Arrays.copyOf(doubles, length) : toDoubles();
+        }
+        throw new IllegalArgumentException("Not a number array type: " + type.getName());
+    }
+
+    private long[] toLongs() {
+        long[] array = new long[length];
+        for(int i = 0; i < length; i++) array[i] = (long) doubles[i];
+        return array;
+    }
+
+    private double[] toDoubles() {
+        double[] array = new double[length];
+        for(int i = 0; i < length; i++) array[i] = longs[i];
+        return array;
+    }
+
+    /**
+     * @return a plain json array with the values of this one.
+     */
+    JsonArray toJsonArray() {
+        JsonArray array = new JsonArray();
+        for(int i = 0; i < length; i++) array.add(new JsonPrimitive(longs != null ? (Object) longs[i] : (Object) doubles[i]));
+        return array;
+    }
+
+    /**
+     * Returns the element with its number arrays replaced by
+     * plain json arrays, copying only the objects and arrays
+     * that have them.
+     *
+     * @param element an element of a tree.
+     * @return the same element if it has no number arrays,
+     * or a copy without them.
+     */
+    static JsonElement plain(JsonElement element) {
+        if(element instanceof JsonNumberArray) return ((JsonNumberArray) element).toJsonArray();
+
+        if(element instanceof JsonObject) {
+            JsonObject object = (JsonObject) element;
+            JsonObject copy = null;
+            int index = 0;
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                JsonElement value = plain(entry.getValue());
+                if(copy == null && value != entry.getValue()) {
+                    //Copies the entries before this one
+                    copy = new JsonObject();
+                    int copied = 0;
+                    for (Map.Entry<String, JsonElement> previous : object.entrySet()) {
+                        if(copied++ == index) break;
+                        copy.put(previous.getKey(), previous.getValue(), object.getComment(previous.getKey()));
+                    }
+                }
+                if(copy != null) copy.put(entry.getKey(), value, object.getComment(entry.getKey()));
+                index++;
+            }
+            return copy != null ? copy : object;
+        }
+
+        if(element instanceof JsonArray) {
+            JsonArray array = (JsonArray) element;
+            JsonArray copy = null;
+            for(int i = 0; i < array.size(); i++) {
+                JsonElement value = plain(array.get(i));
+                if(copy == null && value != array.get(i)) {
+                    copy = new JsonArray();
+                    for(int j = 0; j < i; j++) copy.add(array.get(j), array.getComment(j));
+                }
+                if(copy != null) copy.add(value, array.getComment(i));
+            }
+            return copy != null ? copy : array;
+        }
+
+        return element;
+    }
+
+    /**
+     * Writes the array with the same layout as a json array
+     * of the same values.
+     */
+    @Override
+    public void toJson(Writer w, JsonGrammar grammar, int depth) throws IOException {
+        if(length == 0) {
+            toJsonArray().toJson(w, grammar, depth);
+            return;
+        }
+
+        boolean whitespace = grammar.shouldOutputWhitespace();
+        char[] digits = longs != null ? new char[20] : null;
+        w.write('[');
+        w.write(whitespace ? '\n' : ' ');
+        for(int i = 0; i < length; i++) {
+            if(whitespace) indent(w, depth + 1);
+
+            if(longs != null) writeLong(w, longs[i], digits);
+            else new JsonPrimitive(doubles[i]).toJson(w, grammar, depth + 1);
+
+            if(grammar.shouldPrintCommas()) {
+                if(i < length - 1 || grammar.isTrailingCommas()) {
+                    w.write(',');
+                    if(i < length - 1 && !whitespace) w.write(' ');
+                }
+            } else if(!whitespace) {
+                w.write(' ');
+            }
+
+            if(whitespace) w.write('\n');
+        }
+
+        if(whitespace) indent(w, depth);
+        else w.write(' ');
+        w.write(']');
+    }
+
+    private static void indent(Writer w, int depth) throws IOException {
+        for(int i = 0; i < depth; i++) w.write('\t');
+    }
+
+    private static void writeLong(Writer w, long value, char[] digits) throws IOException {
+        if(value == Long.MIN_VALUE) {
+            w.write(Long.toString(value));
+            return;
+        }
+
+        boolean negative = value < 0;
+        if(negative) value = -value;
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while(value != 0);
+        if(negative) digits[--position] = '-';
+        w.write(digits, position, digits.length - position);
+    }
+
+    @Override
+    public JsonArray clone() {
+        //The values can't be changed, so they are shared
+        return new JsonNumberArray(longs, doubles, length);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(!(other instanceof JsonNumberArray)) return false;
+        JsonNumberArray array = (JsonNumberArray) other;
+        if(length != array.length || isDecimal() != array.isDecimal()) return false;
+        for(int i = 0; i < length; i++) {
+            if(longs != null ? longs[i] != array.longs[i] : Double.doubleToLongBits(doubles[i]) != Double.doubleToLongBits(array.doubles[i])) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(int i = 0; i < length; i++) hash = 31 * hash + (longs != null ? Long.hashCode(longs[i]) : Double.hashCode(doubles[i]));
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toJsonArray().toString();
+    }
+
+}
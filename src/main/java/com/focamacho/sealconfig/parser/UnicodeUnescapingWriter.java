@@ -0,0 +1,102 @@
+package com.focamacho.sealconfig.parser;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer that turns unicode escapes back into the
+ * characters they represent while the text is written,
+ * the same way the commons-text UnicodeUnescaper does.
+ *
+ * Sequences that are not a valid escape are written as they are.
+ */
+class UnicodeUnescapingWriter extends FilterWriter {
+
+    private final StringBuilder pending = new StringBuilder();
+    private int digits = 0;
+    private boolean collecting = false;
+
+    UnicodeUnescapingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        process((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for(int i = off; i < off + len; i++) process(cbuf[i]);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for(int i = off; i < off + len; i++) process(str.charAt(i));
+    }
+
+    private void process(char c) throws IOException {
+        if(pending.length() == 0) {
+            if(c == '\\') pending.append(c);
+            else out.write(c);
+            return;
+        }
+
+        if(pending.length() == 1) {
+            if(c == 'u') {
+                pending.append(c);
+            } else {
+                out.write('\\');
+                reset();
+                process(c);
+            }
+            return;
+        }
+
+        //Same layout accepted by UnicodeUnescaper: a backslash, one or more u's, an optional + and 4 chars
+        if(!collecting) {
+            if(c == 'u') {
+                pending.append(c);
+                return;
+            }
+            collecting = true;
+            if(c == '+') {
+                pending.append(c);
+                return;
+            }
+        }
+
+        pending.append(c);
+        if(++digits < 4) return;
+
+        String escape = pending.toString();
+        reset();
+        int value;
+        try {
+            value = Integer.parseInt(escape.substring(escape.length() - 4), 16);
+        } catch(NumberFormatException e) {
+            //Not an escape, write the backslash and go on with the rest
+            out.write('\\');
+            for(int i = 1; i < escape.length(); i++) process(escape.charAt(i));
+            return;
+        }
+        out.write((char) value);
+    }
+
+    private void reset() {
+        pending.setLength(0);
+        digits = 0;
+        collecting = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(pending.length() > 0) {
+            out.write(pending.toString());
+            reset();
+        }
+        super.close();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.focamacho.sealconfig.parser;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Releases memory-mapped buffers right away, instead of
+ * waiting for them to be garbage collected. On Windows a
+ * mapped file can't be replaced or deleted while it's still
+ * mapped.
+ *
+ * There is no public API for it, so it uses Unsafe on Java 9
+ * and newer, and the cleaner of the buffer on Java 8. If
+ * neither is available, the buffers are left to the garbage
+ * collector.
+ */
+final class Unmapper {
+
+    private static final Object unsafe;
+    private static final Method invokeCleaner;
+
+    static {
+        Object theUnsafe = null;
+        Method cleanerMethod = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            cleanerMethod = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            theUnsafe = field.get(null);
+        } catch(Exception | LinkageError e) {
+            cleanerMethod = null;
+        }
+        unsafe = theUnsafe;
+        invokeCleaner = cleanerMethod;
+    }
+
+    private Unmapper() {}
+
+    /**
+     * Unmaps a buffer. The buffer, and any buffer sliced or
+     * duplicated from it, must not be used after this.
+     *
+     * @param buffer the mapped buffer.
+     * @return true if the buffer was unmapped, false if
+     * it's left to the garbage collector.
+     */
+    static boolean unmap(MappedByteBuffer buffer) {
+        try {
+            if(invokeCleaner != null) {
+                invokeCleaner.invoke(unsafe, buffer);
+                return true;
+            }
+
+            //Java 8
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if(cleaner == null) return false;
+            cleaner.getClass().getMethod("clean").invoke(cleaner);
+            return true;
+        } catch(Exception | LinkageError e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.TestConfigs.Example;
+import com.focamacho.sealconfig.parser.JanksonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Loads, reloads and saves many config files from several
+ * threads at once, checking that every file keeps a single
+ * config object and that nothing fails.
+ */
+public class ConcurrencyTest {
+
+    private static final int FILES = 32;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 400;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 120000)
+    public void concurrentGetReloadAndSave() throws Exception {
+        File[] files = new File[FILES];
+        for(int i = 0; i < FILES; i++) files[i] = new File(folder.getRoot(), "config" + i + ".json5");
+
+        ExecutorService fileExecutor = Executors.newFixedThreadPool(4);
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            SealConfig sealConfig = new SealConfig(new JanksonParser().setExecutor(fileExecutor));
+            Map<File, Example> seen = new ConcurrentHashMap<>();
+            CountDownLatch start = new CountDownLatch(1);
+
+            List<Future<?>> futures = new ArrayList<>();
+            for(int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(threads.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for(int i = 0; i < OPERATIONS; i++) {
+                        File file = files[random.nextInt(FILES)];
+                        switch((i + thread) % 4) {
+                            case 0: {
+                                Example config = sealConfig.getConfig(file, Example.class);
+                                assertNotNull(config);
+                                Example previous = seen.putIfAbsent(file, config);
+                                if(previous != null) assertSame("Two objects for " + file, previous, config);
+                                break;
+                            }
+                            case 1:
+                                assertTrue(sealConfig.tryReload().isEmpty());
+                                break;
+                            case 2: {
+                                Example config = sealConfig.getConfig(file, Example.class);
+                                config.coolNumber = random.nextInt(1000);
+                                sealConfig.save(config);
+                                break;
+                            }
+                            default:
+                                assertTrue(sealConfig.trySave().isEmpty());
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for(Future<?> future : futures) future.get();
+
+            //Every file still has one object, and a complete file
+            for(File file : files) {
+                Example config = sealConfig.getConfig(file, Example.class);
+                Example previous = seen.get(file);
+                if(previous != null) assertSame(previous, config);
+
+                sealConfig.save(config);
+                Example fresh = new SealConfig().getConfig(file, Example.class);
+                assertNotNull(fresh);
+                assertEquals(config.coolNumber, fresh.coolNumber);
+                assertEquals(config.myName, fresh.myName);
+            }
+        } finally {
+            threads.shutdownNow();
+            fileExecutor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.annotation.ConfigCategory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConfigClassInfoTest {
+
+    public static class Names {
+        public String myName = "name";
+        public int İndex = 0;
+    }
+
+    public static class Tree {
+        public Node root = new Node();
+    }
+
+    @ConfigCategory
+    public static class Node {
+        public String name = "node";
+        public Node child = null;
+    }
+
+    @Test
+    public void fieldsAreFoundLikeTheKeysOfTheTree() {
+        ConfigClassInfo info = ConfigClassInfo.of(Names.class);
+        assertEquals("myName", info.getField("MYNAME").getName());
+        //Equal ignoring case, but not once lower-cased: the dotted I lower-cases to two chars
+        assertTrue("index".equalsIgnoreCase("İndex"));
+        assertEquals("İndex", info.getField("index").getName());
+        assertNull(info.getField("other"));
+    }
+
+    @Test
+    public void categoriesThatContainThemselvesHaveASchemaHash() {
+        long hash = ConfigClassInfo.of(Tree.class).getSchemaHash();
+        assertEquals(hash, ConfigClassInfo.of(Tree.class).getSchemaHash());
+        assertNotEquals(hash, ConfigClassInfo.of(Node.class).getSchemaHash());
+    }
+
+}
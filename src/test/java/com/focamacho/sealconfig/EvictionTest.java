@@ -0,0 +1,86 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.TestConfigs.Example;
+import com.focamacho.sealconfig.parser.JanksonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that configs evicted past the loaded limit keep
+ * working for the code that still holds them.
+ */
+public class EvictionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void referencedConfigsAreNotReplaced() {
+        SealConfig sealConfig = new SealConfig(new JanksonParser().setMaxLoadedConfigs(1));
+        File first = new File(folder.getRoot(), "first.json5");
+        Example config = sealConfig.getConfig(first, Example.class);
+        sealConfig.getConfig(new File(folder.getRoot(), "second.json5"), Example.class);
+        sealConfig.getConfig(new File(folder.getRoot(), "third.json5"), Example.class);
+
+        assertSame(config, sealConfig.getConfig(first, Example.class));
+    }
+
+    @Test
+    public void evictedConfigsAreStillSavedAndReloaded() throws Exception {
+        SealConfig sealConfig = new SealConfig(new JanksonParser().setMaxLoadedConfigs(1));
+        File first = new File(folder.getRoot(), "first.json5");
+        Example config = sealConfig.getConfig(first, Example.class);
+        sealConfig.getConfig(new File(folder.getRoot(), "second.json5"), Example.class);
+
+        config.coolNumber = 5;
+        sealConfig.saveAsync(config).get(10, TimeUnit.SECONDS);
+        assertEquals(5, new SealConfig().getConfig(first, Example.class).coolNumber);
+
+        sealConfig.getConfig(new File(folder.getRoot(), "third.json5"), Example.class);
+        SealConfig other = new SealConfig();
+        Example changed = other.getConfig(first, Example.class);
+        changed.coolNumber = 8;
+        other.save(changed);
+
+        assertTrue(sealConfig.tryReload().isEmpty());
+        assertEquals(8, config.coolNumber);
+        sealConfig.close();
+    }
+
+    @Test
+    public void configsWithHandlesAreKept() {
+        SealConfig sealConfig = new SealConfig(new JanksonParser().setMaxLoadedConfigs(1));
+        File first = new File(folder.getRoot(), "first.json5");
+        ConfigHandle<Example> handle = sealConfig.getHandle(first, Example.class);
+        sealConfig.getConfig(new File(folder.getRoot(), "second.json5"), Example.class);
+        sealConfig.getConfig(new File(folder.getRoot(), "third.json5"), Example.class);
+
+        assertSame(handle.get(), sealConfig.getConfig(first, Example.class));
+        assertTrue(sealConfig.tryReload().isEmpty());
+        assertSame(handle.get(), sealConfig.getConfig(first, Example.class));
+    }
+
+    @Test
+    public void savingAnUnloadedConfigFails() throws Exception {
+        SealConfig sealConfig = new SealConfig();
+        Example config = sealConfig.getConfig(new File(folder.getRoot(), "first.json5"), Example.class);
+        assertTrue(sealConfig.unload(config));
+
+        try {
+            sealConfig.saveAsync(config).get(10, TimeUnit.SECONDS);
+            fail("Saved an unloaded config");
+        } catch(ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        } finally {
+            sealConfig.close();
+        }
+    }
+
+}
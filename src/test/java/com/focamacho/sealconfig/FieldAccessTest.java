@@ -0,0 +1,56 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.ConfigClassInfo.FieldInfo;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FieldAccessTest {
+
+    public static class Fields {
+        public int number = 1;
+        public long wide = 2;
+        public String text = "text";
+        public final String constant = "constant";
+    }
+
+    private static FieldInfo field(String name) {
+        return ConfigClassInfo.of(Fields.class).getField(name);
+    }
+
+    @Test
+    public void valuesAreReadAndWritten() throws IllegalAccessException {
+        Fields fields = new Fields();
+        field("number").set(fields, 5);
+        field("text").set(fields, null);
+        assertEquals(5, field("number").get(fields));
+        assertNull(field("text").get(fields));
+
+        Fields copy = new Fields();
+        field("number").copy(fields, copy);
+        assertEquals(5, copy.number);
+    }
+
+    @Test
+    public void valuesAreWidenedLikeReflection() throws IllegalAccessException {
+        Fields fields = new Fields();
+        field("wide").set(fields, 7);
+        assertEquals(7L, fields.wide);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongTypesAreRejectedLikeReflection() throws IllegalAccessException {
+        field("number").set(new Fields(), "five");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullPrimitivesAreRejectedLikeReflection() throws IllegalAccessException {
+        field("number").set(new Fields(), null);
+    }
+
+    @Test(expected = IllegalAccessException.class)
+    public void finalFieldsAreNotWritten() throws IllegalAccessException {
+        field("constant").set(new Fields(), "changed");
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.focamacho.sealconfig;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class FileFingerprintTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recentlyModifiedFilesAreNotTrusted() throws IOException {
+        File file = folder.newFile("config.json5");
+        write(file, "{\"value\": 1}");
+        FileFingerprint fingerprint = FileFingerprint.read(file);
+
+        //Same size and modification time, but different contents
+        long lastModified = file.lastModified();
+        write(file, "{\"value\": 2}");
+        assertTrue(file.setLastModified(lastModified));
+
+        assertFalse(fingerprint.matchesStat(file));
+        assertFalse(FileFingerprint.read(file).sameContents(fingerprint));
+    }
+
+    @Test
+    public void oldFilesAreTrustedByTheirStat() throws IOException {
+        File file = folder.newFile("config.json5");
+        write(file, "{\"value\": 1}");
+        assertTrue(file.setLastModified(System.currentTimeMillis() - 60000));
+        FileFingerprint fingerprint = FileFingerprint.read(file);
+
+        assertTrue(fingerprint.matchesStat(file));
+        write(file, "{\"value\": 10}");
+        assertFalse(fingerprint.matchesStat(file));
+    }
+
+    @Test
+    public void filesAreHashedWhileRead() throws IOException {
+        File file = folder.newFile("config.json5");
+        write(file, "{\"value\": 1}\n\n");
+
+        try(InputStream in = Files.newInputStream(file.toPath())) {
+            FileFingerprint.HashingInputStream hashing = new FileFingerprint.HashingInputStream(in, file);
+            //Parsers may stop reading before the end of the file, and close the stream
+            assertEquals('{', hashing.read());
+            hashing.close();
+
+            FileFingerprint fingerprint = hashing.readFingerprint();
+            assertTrue(fingerprint.sameContents(FileFingerprint.read(file)));
+            assertEquals(file.lastModified(), fingerprint.getLastModified());
+        }
+    }
+
+    private static void write(File file, String contents) throws IOException {
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.TestConfigs.Deep;
+import com.focamacho.sealconfig.TestConfigs.Example;
+import com.focamacho.sealconfig.parser.JanksonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class LazyCategoriesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void categoriesAreBoundWhenAccessed() throws IOException {
+        File file = new File(folder.getRoot(), "example.json5");
+        Files.write(file.toPath(), "{\"category\": {\"result\": 7}}".getBytes(StandardCharsets.UTF_8));
+
+        ConfigHandle<Example> handle = new SealConfig(new JanksonParser().setLazyCategories(true)).getHandle(file, Example.class);
+        assertEquals(7, handle.category(Example.Category.class).result);
+        assertSame(handle.category(Example.Category.class), handle.<Example.Category>category("category"));
+    }
+
+    @Test
+    public void categoriesOfTheSameClassAreBoundByName() throws IOException {
+        File file = new File(folder.getRoot(), "deep.json5");
+        Files.write(file.toPath(), "{\"first\": {\"value\": \"one\"}, \"second\": {\"value\": \"two\"}}".getBytes(StandardCharsets.UTF_8));
+
+        ConfigHandle<Deep> handle = new SealConfig(new JanksonParser().setLazyCategories(true)).getHandle(file, Deep.class);
+        Deep.Level first = handle.category("first");
+        Deep.Level second = handle.category("second");
+        assertEquals("one", first.value);
+        assertEquals("two", second.value);
+        assertSame(first, handle.get().first);
+        assertSame(second, handle.get().second);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void repeatedCategoryClassesCantBeUsed() {
+        ConfigHandle<Deep> handle = new SealConfig().getHandle(new File(folder.getRoot(), "deep.json5"), Deep.class);
+        handle.category(Deep.Level.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCategoryNamesFail() {
+        ConfigHandle<Deep> handle = new SealConfig().getHandle(new File(folder.getRoot(), "deep.json5"), Deep.class);
+        handle.category("number");
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.TestConfigs.Example;
+import com.focamacho.sealconfig.TestConfigs.Holder;
+import com.focamacho.sealconfig.TestConfigs.NameOnly;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ReloadTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reloadReplacesCategories() throws IOException {
+        File file = new File(folder.getRoot(), "example.json5");
+        SealConfig sealConfig = new SealConfig();
+        Example config = sealConfig.getConfig(file, Example.class);
+        Example.Category category = config.category;
+
+        write(file, "{\"myName\": \"Reloaded\", \"category\": {\"hi\": \"reloaded\"}}");
+        assertTrue(sealConfig.tryReload().isEmpty());
+
+        assertEquals("Reloaded", config.myName);
+        assertNotSame(category, config.category);
+        assertEquals("reloaded", config.category.hi);
+    }
+
+    @Test
+    public void reloadReplacesNullCategories() throws IOException {
+        File file = new File(folder.getRoot(), "example.json5");
+        SealConfig sealConfig = new SealConfig();
+        Example config = sealConfig.getConfig(file, Example.class);
+        config.category = null;
+
+        write(file, "{\"category\": {\"result\": 5}}");
+        sealConfig.reload();
+
+        assertNotNull(config.category);
+        assertEquals(5, config.category.result);
+    }
+
+    @Test
+    public void reloadAssignsObjectFields() throws IOException {
+        File file = new File(folder.getRoot(), "holder.json5");
+        SealConfig sealConfig = new SealConfig();
+        Holder config = sealConfig.getConfig(file, Holder.class);
+
+        write(file, "{\"value\": \"other\", \"names\": [\"second\"], \"after\": \"changed\"}");
+        sealConfig.reload();
+        Holder fresh = new SealConfig().getConfig(file, Holder.class);
+
+        assertEquals(fresh.value, config.value);
+        assertEquals(Collections.singletonList("second"), config.names);
+        assertEquals("changed", config.after);
+    }
+
+    @Test
+    public void reloadUpdatesEveryClassOfAFile() throws IOException {
+        File file = new File(folder.getRoot(), "shared.json5");
+        SealConfig sealConfig = new SealConfig();
+        Example example = sealConfig.getConfig(file, Example.class);
+        NameOnly nameOnly = sealConfig.getConfig(file, NameOnly.class);
+
+        write(file, "{\"myName\": \"Shared\"}");
+        assertTrue(sealConfig.tryReload().isEmpty());
+
+        assertEquals("Shared", example.myName);
+        assertEquals("Shared", nameOnly.myName);
+    }
+
+    @Test
+    public void reloadKeepsTheErrorsOfEveryClassOfAFile() throws IOException {
+        File file = new File(folder.getRoot(), "shared.json5");
+        SealConfig sealConfig = new SealConfig();
+        sealConfig.getConfig(file, Example.class);
+        sealConfig.getConfig(file, NameOnly.class);
+
+        write(file, "{\"myName\": ");
+        Map<File, Exception> failures = sealConfig.tryReload();
+
+        assertEquals(Collections.singleton(file), failures.keySet());
+        assertEquals(1, failures.get(file).getSuppressed().length);
+    }
+
+    private static void write(File file, String contents) throws IOException {
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
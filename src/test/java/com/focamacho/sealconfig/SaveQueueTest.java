@@ -0,0 +1,64 @@
+package com.focamacho.sealconfig;
+
+import com.focamacho.sealconfig.TestConfigs.Example;
+import com.focamacho.sealconfig.parser.JanksonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class SaveQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 30000)
+    public void flushFromTheSaverThread() throws Exception {
+        SealConfig sealConfig = new SealConfig(new JanksonParser().setSaveWindow(100));
+        Example config = sealConfig.getConfig(new File(folder.getRoot(), "example.json5"), Example.class);
+
+        config.coolNumber = 5;
+        sealConfig.saveAsync(config).thenRun(sealConfig::flush).get(10, TimeUnit.SECONDS);
+        sealConfig.close();
+    }
+
+    @Test(timeout = 30000)
+    public void closeStopsTheSaverThread() throws Exception {
+        SealConfig sealConfig = new SealConfig(new JanksonParser().setSaveWindow(100));
+        File file = new File(folder.getRoot(), "example.json5");
+        Example config = sealConfig.getConfig(file, Example.class);
+
+        AtomicReference<Thread> saver = new AtomicReference<>();
+        config.coolNumber = 5;
+        sealConfig.saveAsync(config).thenRun(() -> saver.set(Thread.currentThread())).get(10, TimeUnit.SECONDS);
+        assertEquals("SealConfig Saver", saver.get().getName());
+
+        sealConfig.close();
+        saver.get().join(5000);
+        assertFalse(saver.get().isAlive());
+
+        //Saving again starts a new queue
+        config.coolNumber = 6;
+        sealConfig.saveAsync(config).get(10, TimeUnit.SECONDS);
+        assertEquals(6, new SealConfig().getConfig(file, Example.class).coolNumber);
+        sealConfig.close();
+    }
+
+    @Test(timeout = 30000)
+    public void closeWritesQueuedSaves() throws Exception {
+        SealConfig sealConfig = new SealConfig(new JanksonParser().setSaveWindow(60000));
+        File file = new File(folder.getRoot(), "example.json5");
+        Example config = sealConfig.getConfig(file, Example.class);
+
+        config.coolNumber = 7;
+        sealConfig.saveAsync(config);
+        sealConfig.close();
+        assertEquals(7, new SealConfig().getConfig(file, Example.class).coolNumber);
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.focamacho.sealconfig;
+
+import blue.endless.jankson.api.annotation.Comment;
+import com.focamacho.sealconfig.annotation.ConfigCategory;
+
+import java.util.*;
+
+/**
+ * Config classes used by the tests.
+ */
+public class TestConfigs {
+
+    public static class Example {
+        @Comment("Set your name here.")
+        public String myName = "Focamacho";
+        @Comment("Set here a cool number.")
+        public int coolNumber = 0;
+        public double ratio = 0.5;
+        public long big = 1L << 40;
+        public boolean enabled = true;
+        @Comment("Values by name.")
+        public Map<String, Integer> values = new LinkedHashMap<>();
+        @Comment("This is a category.")
+        public Category category = new Category();
+
+        public Example() {
+            values.put("a", 1);
+            values.put("b", 2);
+        }
+
+        @ConfigCategory
+        public static class Category {
+            @Comment("Result of what?")
+            public int result = 20;
+            @Comment("Hi!")
+            public String hi = "hello!";
+        }
+    }
+
+    public static class Numbers {
+        public byte smallByte = 8;
+        public short smallShort = 16;
+        @Comment("An int.")
+        public int integer = 32;
+        public long bigLong = Long.MAX_VALUE;
+        public float decimalFloat = 1.25f;
+        public double decimalDouble = 0.1;
+        public Integer boxed = 7;
+        @Comment("Text with escapes.")
+        public String text = "quote \" backslash \\ tab \t line \n unicode ção";
+        public int[] ints = {1, 2, 3};
+        public long[] longs = {Long.MIN_VALUE, 0, Long.MAX_VALUE};
+        public double[] doubles = {0.5, -1.5, 1e-3};
+        public List<Double> decimals = new ArrayList<>(Arrays.asList(1.0, 2.5));
+        public List<Long> longList = new ArrayList<>(Arrays.asList(1L, 2L));
+        @Comment("Decimals by name.")
+        public Map<String, Double> byName = new LinkedHashMap<>();
+
+        public Numbers() {
+            byName.put("half", 0.5);
+            byName.put("whole", 1.0);
+        }
+    }
+
+    public static class NameOnly {
+        public String myName = "Focamacho";
+    }
+
+    public static class Holder {
+        public Object value = "text";
+        public List<String> names = new ArrayList<>(Collections.singletonList("first"));
+        public String after = "after";
+    }
+
+    public static class Deep {
+        @Comment("The first category.")
+        public Level first = new Level();
+        @Comment("The second category.")
+        public Level second = new Level();
+        public int number = 1;
+
+        @ConfigCategory
+        public static class Level {
+            @Comment("A nested category.")
+            public Leaf nested = new Leaf();
+            public String value = "level";
+            public int number = 1;
+        }
+
+        @ConfigCategory
+        public static class Leaf {
+            @Comment("The deepest value.")
+            public String value = "leaf";
+            public boolean enabled = true;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.element.JsonArray;
+import blue.endless.jankson.api.element.JsonElement;
+import blue.endless.jankson.api.element.JsonObject;
+import blue.endless.jankson.api.element.JsonPrimitive;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that truncated or corrupted binary trees are
+ * rejected with an IOException instead of being trusted.
+ */
+public class BinaryTreeTest {
+
+    @Test
+    public void treesAreReadBack() throws IOException {
+        JsonObject tree = tree();
+        JsonObject read = (JsonObject) read(write(tree), true);
+        assertEquals(tree.toJson(true, true), read.toJson(true, true));
+    }
+
+    @Test
+    public void truncatedTreesAreRejected() throws IOException {
+        byte[] bytes = write(tree());
+        for(int length = 0; length < bytes.length; length++) {
+            assertRejected(Arrays.copyOf(bytes, length));
+        }
+    }
+
+    @Test
+    public void hugeLengthsAreRejected() throws IOException {
+        //A string, an object, an array and the number arrays saying they have Integer.MAX_VALUE entries
+        for(int tag : new int[] {3, 1, 2, 15, 16}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(tag);
+            out.writeInt(Integer.MAX_VALUE);
+            out.write(new byte[64]);
+            assertRejected(bytes.toByteArray());
+        }
+    }
+
+    @Test
+    public void deepTreesAreRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for(int i = 0; i < 100000; i++) {
+            //Arrays with one element, without comments
+            out.writeByte(2);
+            out.writeInt(1);
+        }
+        assertRejected(bytes.toByteArray());
+    }
+
+    private static JsonObject tree() {
+        JsonObject object = new JsonObject();
+        object.put("name", new JsonPrimitive("Seal"), "A comment");
+        object.put("number", new JsonPrimitive(5L), null);
+        JsonArray strings = new JsonArray();
+        strings.add(new JsonPrimitive("one"));
+        strings.add(new JsonPrimitive("two"));
+        object.put("strings", strings, null);
+        JsonArray longs = new JsonArray();
+        for(long i = 0; i < 20; i++) longs.add(new JsonPrimitive(i));
+        object.put("longs", longs, null);
+        return object;
+    }
+
+    private static byte[] write(JsonElement element) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryTree.write(element, new DataOutputStream(bytes), true);
+        return bytes.toByteArray();
+    }
+
+    private static JsonElement read(byte[] bytes, boolean comments) throws IOException {
+        return BinaryTree.read(new DataInputStream(new ByteArrayInputStream(bytes)), comments);
+    }
+
+    private static void assertRejected(byte[] bytes) {
+        try {
+            read(bytes, true);
+            fail("Read a corrupted tree of " + bytes.length + " bytes");
+        } catch(IOException expected) {}
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.focamacho.sealconfig.parser;
+
+import com.focamacho.sealconfig.SealConfig;
+import com.focamacho.sealconfig.TestConfigs.Example;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class CacheTest {
+
+    //Magic, schema hash and the four longs of the fingerprint
+    private static final int CACHE_HEADER = 4 + 8 + 4 * 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void cachedConfigsAreLoaded() throws IOException {
+        File cache = folder.newFolder("cache");
+        File file = new File(folder.getRoot(), "example.json5");
+
+        SealConfig sealConfig = new SealConfig(new JanksonParser().setCacheDirectory(cache));
+        Example config = sealConfig.getConfig(file, Example.class);
+        config.coolNumber = 4;
+        sealConfig.save(config);
+        load(cache, file);
+
+        assertEquals(4, load(cache, file).coolNumber);
+        assertEquals(1, cacheFiles(cache).length);
+    }
+
+    @Test
+    public void corruptedCachesAreIgnored() throws IOException {
+        File cache = folder.newFolder("cache");
+        File file = new File(folder.getRoot(), "example.json5");
+        load(cache, file);
+
+        File[] cacheFiles = cacheFiles(cache);
+        assertEquals(1, cacheFiles.length);
+        byte[] bytes = Files.readAllBytes(cacheFiles[0].toPath());
+
+        //Truncated in the middle of the tree
+        assertLoadsDefaults(cache, file, cacheFiles[0], Arrays.copyOf(bytes, bytes.length / 2));
+
+        //Garbage after the header, read as huge lengths and invalid tags
+        byte[] garbage = bytes.clone();
+        Arrays.fill(garbage, CACHE_HEADER, garbage.length, (byte) 0x7F);
+        assertLoadsDefaults(cache, file, cacheFiles[0], garbage);
+    }
+
+    private static void assertLoadsDefaults(File cache, File file, File cacheFile, byte[] contents) throws IOException {
+        Files.write(cacheFile.toPath(), contents);
+        Example config = load(cache, file);
+        assertEquals(new Example().coolNumber, config.coolNumber);
+        assertEquals(new Example().category.result, config.category.result);
+        assertFalse(Arrays.equals(contents, Files.readAllBytes(cacheFile.toPath())));
+    }
+
+    private static Example load(File cache, File file) {
+        Example config = new SealConfig(new JanksonParser().setCacheDirectory(cache)).getConfig(file, Example.class);
+        assertNotNull(config);
+        return config;
+    }
+
+    private static File[] cacheFiles(File cache) {
+        File[] files = cache.listFiles();
+        assertNotNull(files);
+        return files;
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.focamacho.sealconfig.parser;
+
+import com.focamacho.sealconfig.SealConfig;
+import com.focamacho.sealconfig.TestConfigs.Deep;
+import com.focamacho.sealconfig.TestConfigs.Example;
+import com.focamacho.sealconfig.TestConfigs.Numbers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the files written from the trees built directly
+ * from the config objects are the same, byte for byte, as the
+ * ones written by the old text round-trip, and that both match
+ * the golden files.
+ *
+ * Both paths write through the same printer and
+ * {@link UnicodeUnescapingWriter}, and the golden files were
+ * written from that output, so they only catch changes to it.
+ * The writer is compared with the commons-text UnicodeUnescaper
+ * the files were written with before in
+ * {@link UnicodeUnescapingWriterTest}.
+ *
+ * Run the tests with -PupdateGolden to write the golden files
+ * again from the current output.
+ */
+public class GoldenFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void defaultsMatchGoldenFile() throws IOException {
+        assertGolden("example.json5", writeBoth(Example.class, null, null));
+    }
+
+    @Test
+    public void savedValuesMatchGoldenFile() throws IOException {
+        assertGolden("example-saved.json5", writeBoth(Example.class, null, config -> {
+            Example example = (Example) config;
+            example.myName = "Foca";
+            example.coolNumber = 10;
+            example.values.put("c", 3);
+            example.category.result = 30;
+        }));
+    }
+
+    @Test
+    public void numbersAreWrittenTheSame() throws IOException {
+        writeBoth(Numbers.class, null, null);
+        writeBoth(Numbers.class, null, config -> {
+            Numbers numbers = (Numbers) config;
+            numbers.integer = -1;
+            numbers.decimalFloat = 3.5f;
+            numbers.doubles = new double[] {2, 0.25};
+            numbers.decimals.add(-0.5);
+            numbers.byName.put("third", 1.0 / 3);
+        });
+    }
+
+    @Test
+    public void categoriesAreWrittenTheSame() throws IOException {
+        writeBoth(Deep.class, null, null);
+        writeBoth(Deep.class, null, config -> {
+            Deep deep = (Deep) config;
+            deep.second.nested.value = "changed";
+            deep.first.number = 5;
+        });
+    }
+
+    @Test
+    public void mergedFilesAreWrittenTheSame() throws IOException {
+        //Missing keys, a user comment, a changed value and an unknown key
+        String partial = "{\n\t// Mine\n\t\"myName\": \"Seal\",\n\t\"unknown\": 1,\n\t\"category\": {\n\t\t\"hi\": \"hey\"\n\t}\n}";
+        writeBoth(Example.class, partial, null);
+
+        String numbers = "{\n\t\"integer\": 1,\n\t\"decimalDouble\": 2,\n\t\"ints\": [4, 5],\n\t\"byName\": {\"one\": 1}\n}";
+        writeBoth(Numbers.class, numbers, null);
+    }
+
+    /**
+     * Loads the config from a new file with the direct and the
+     * text round-trip paths, changing and saving it if asked,
+     * and checks both files have the same bytes.
+     *
+     * @param initial the contents of the file before loading,
+     *                or null to create it from the defaults.
+     * @param change changes the loaded config before saving it,
+     *               or null to not save it.
+     * @return the contents of the files.
+     */
+    private byte[] writeBoth(Class<?> configClass, String initial, Consumer<Object> change) throws IOException {
+        byte[] direct = write(new JanksonParser(), configClass, initial, change);
+        byte[] roundTrip = write(new JanksonParser().setTextRoundTrip(true), configClass, initial, change);
+        assertEquals(configClass.getSimpleName(), new String(roundTrip, StandardCharsets.UTF_8), new String(direct, StandardCharsets.UTF_8));
+        assertArrayEquals(roundTrip, direct);
+        return direct;
+    }
+
+    private byte[] write(JanksonParser parser, Class<?> configClass, String initial, Consumer<Object> change) throws IOException {
+        File file = new File(folder.newFolder(), "config.json5");
+        if(initial != null) Files.write(file.toPath(), initial.getBytes(StandardCharsets.UTF_8));
+
+        SealConfig sealConfig = new SealConfig(parser);
+        Object config = sealConfig.getConfig(file, configClass);
+        assertNotNull(config);
+        if(change != null) {
+            change.accept(config);
+            sealConfig.save(config);
+        }
+        return Files.readAllBytes(file.toPath());
+    }
+
+    private static void assertGolden(String name, byte[] actual) throws IOException {
+        String goldenDir = System.getProperty("sealconfig.goldenDir");
+        if(goldenDir != null) {
+            Files.write(Paths.get(goldenDir, name), actual);
+            return;
+        }
+
+        try(InputStream in = GoldenFileTest.class.getResourceAsStream("/golden/" + name)) {
+            assertNotNull("Missing golden file " + name, in);
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for(int read; (read = in.read(buffer)) != -1; ) expected.write(buffer, 0, read);
+
+            //Only the line endings may change when the golden files are checked out
+            assertEquals(name, expected.toString("UTF-8").replace("\r\n", "\n"), new String(actual, StandardCharsets.UTF_8));
+        }
+    }
+
+}
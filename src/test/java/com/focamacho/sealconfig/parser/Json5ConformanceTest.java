@@ -0,0 +1,146 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.element.JsonArray;
+import blue.endless.jankson.api.element.JsonElement;
+import blue.endless.jankson.api.element.JsonObject;
+import blue.endless.jankson.api.element.JsonPrimitive;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reads the same files with the {@link JanksonParser} and the
+ * {@link Json5Parser}, checking that both create the same tree,
+ * with the same values, value types and comments.
+ */
+public class Json5ConformanceTest {
+
+    @Test
+    public void valuesAreReadTheSame() throws Exception {
+        assertSameTree("{\"string\": \"text\", \"single\": 'text', \"int\": 1, \"negative\": -20, \"decimal\": 1.5,"
+                + " \"exponent\": 1e3, \"leadingDot\": .5, \"trailingDot\": 5., \"true\": true, \"false\": false, \"null\": null}");
+        assertSameTree("{\"big\": 123456789012345678901234567890, \"min\": -9223372036854775808, \"max\": 9223372036854775807}");
+        assertSameTree("{\"infinity\": Infinity, \"negativeInfinity\": -Infinity, \"nan\": NaN}");
+        assertSameTree("{\"nested\": {\"list\": [1, \"two\", [3.5], {\"four\": 4}], \"empty\": {}, \"emptyList\": []}}");
+    }
+
+    @Test
+    public void numbersWithSignsAndHexadecimalsAreReadTheSame() throws Exception {
+        assertSameTree("{\"plus\": +5, \"plusDecimal\": +1.5, \"plusInfinity\": +Infinity, \"plusExponent\": 1e+5}");
+        assertSameTree("{\"hex\": 0x1F, \"upper\": 0XAB, \"negative\": -0x10, \"plus\": +0x10, \"max\": 0x7FFFFFFFFFFFFFFF}");
+        assertSameTree("{\"hexArray\": [0x1, 0x2, -0x3]}");
+    }
+
+    @Test
+    public void stringsAreReadTheSame() throws Exception {
+        assertSameTree("{\"escapes\": \"\\b\\f\\n\\r\\t\\\"\\\\\\/\", \"unicode\": \"\\u0041\\u00e7\", \"hex\": \"\\x41\\x7e\"}");
+        assertSameTree("{\"quotes\": 'it\\'s \"quoted\"', \"continued\": \"one \\\ntwo\"}");
+    }
+
+    @Test
+    public void keysAreReadTheSame() throws Exception {
+        assertSameTree("{unquoted: 1, $dollar: 2, _under: 3, withDigits2: 4, 'single': 5, \"with space\": 6}");
+    }
+
+    @Test
+    public void commasAreReadTheSame() throws Exception {
+        assertSameTree("{\"a\": 1, \"b\": [1, 2,], \"c\": {\"d\": 1,},}");
+        assertSameTree("{\"a\": 1\n\"b\": 2\n\"c\": [1\n2]}");
+    }
+
+    @Test
+    public void commentsAreReadTheSame() throws Exception {
+        assertSameTree("{\n\t// Line comment\n\t\"a\": 1,\n\t# Hash comment\n\t\"b\": 2,\n\t/* Block comment */\n\t\"c\": 3\n}");
+        assertSameTree("{\n\t// First line\n\t// Second line\n\t\"a\": 1,\n\t/*\n\t * Multiple\n\t * lines\n\t */\n\t\"b\": 2\n}");
+        assertSameTree("{\n\t\"category\": {\n\t\t// Nested\n\t\t\"a\": 1\n\t},\n\t\"list\": [\n\t\t// Element\n\t\t1,\n\t\t2\n\t]\n}");
+    }
+
+    @Test
+    public void trailingCommentsAreReadTheSame() throws Exception {
+        assertSameTree("{\n\t\"a\": 1, // After the comma\n\t\"b\": 2 // Without a comma\n}");
+        assertSameTree("{\n\t// Before\n\t\"a\": 1, // After\n\t\"b\": 2, /* Block */ # Hash\n\t\"c\": 3\n}");
+        assertSameTree("{\n\t\"category\": {\n\t\t\"a\": 1\n\t}, // After the category\n\t\"b\": 2\n}");
+        assertSameTree("{\n\t\"list\": [\n\t\t1, // One\n\t\t2,\n\t\t\"three\" // Three\n\t]\n}");
+    }
+
+    @Test
+    public void sealConfigFilesAreReadTheSame() throws Exception {
+        assertSameTree("{\n\t// Your name.\n\t\"myName\": \"Foca\",\n\n\t// A cool number.\n\t\"coolNumber\": 10,\n\t\"values\": {\n\t\t\"a\": 1,\n\t\t\"b\": 2\n\t},\n\n"
+                + "\t// A category.\n\t\"category\": {\n\t\t// The result.\n\t\t\"result\": 30,\n\t\t\"hi\": \"hello\"\n\t}\n}");
+    }
+
+    @Test
+    public void invalidFilesAreRejectedByBoth() {
+        assertBothReject("{\"a\" 1}");
+        assertBothReject("{\"a\": }");
+        assertBothReject("{\"a\": \"unterminated}");
+        assertBothReject("{\"a\": [1, 2}");
+        assertBothReject("{my key: 1}");
+        assertBothReject("[1, 2]");
+    }
+
+    private static void assertSameTree(String json) throws Exception {
+        JsonObject expected = parse(new JanksonParser(), json);
+        JsonObject actual = parse(new Json5Parser(), json);
+        //Number arrays are compared as the json arrays they stand for, and must be written the same way
+        assertSameElement(json, "", expected, JsonNumberArray.plain(actual));
+        assertEquals(json, expected.toJson(true, true), actual.toJson(true, true));
+    }
+
+    private static void assertBothReject(String json) {
+        List<String> accepted = new ArrayList<>();
+        for(JanksonParser parser : new JanksonParser[] {new JanksonParser(), new Json5Parser()}) {
+            try {
+                parse(parser, json);
+                accepted.add(parser.getClass().getSimpleName());
+            } catch(Exception ignored) {}
+        }
+        assertTrue(json + " was accepted by " + accepted, accepted.isEmpty());
+    }
+
+    private static JsonObject parse(JanksonParser parser, String json) throws Exception {
+        try(InputStream in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))) {
+            return parser.parse(in);
+        }
+    }
+
+    private static void assertSameElement(String json, String path, JsonElement expected, JsonElement actual) {
+        String message = json + " at '" + path + "'";
+        if(expected instanceof JsonObject) {
+            assertTrue(message, actual instanceof JsonObject);
+            JsonObject expectedObject = (JsonObject) expected;
+            JsonObject actualObject = (JsonObject) actual;
+            assertEquals(message, new ArrayList<>(expectedObject.keySet()), new ArrayList<>(actualObject.keySet()));
+            for(Map.Entry<String, JsonElement> entry : expectedObject.entrySet()) {
+                String key = entry.getKey();
+                assertEquals(message + " comment of " + key, expectedObject.getComment(key), actualObject.getComment(key));
+                assertSameElement(json, path + "." + key, entry.getValue(), actualObject.get(key));
+            }
+        } else if(expected instanceof JsonArray) {
+            assertTrue(message, actual instanceof JsonArray);
+            JsonArray expectedArray = (JsonArray) expected;
+            JsonArray actualArray = (JsonArray) actual;
+            assertEquals(message, expectedArray.size(), actualArray.size());
+            for(int i = 0; i < expectedArray.size(); i++) {
+                assertEquals(message + " comment of " + i, expectedArray.getComment(i), actualArray.getComment(i));
+                assertSameElement(json, path + "[" + i + "]", expectedArray.get(i), actualArray.get(i));
+            }
+        } else if(expected instanceof JsonPrimitive) {
+            assertTrue(message, actual instanceof JsonPrimitive);
+            Object expectedValue = ((JsonPrimitive) expected).getValue();
+            Object actualValue = ((JsonPrimitive) actual).getValue();
+            assertEquals(message, expectedValue.getClass(), actualValue.getClass());
+            assertEquals(message, expectedValue, actualValue);
+        } else {
+            assertEquals(message, expected, actual);
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.JsonGrammar;
+import blue.endless.jankson.api.element.JsonArray;
+import blue.endless.jankson.api.element.JsonElement;
+import blue.endless.jankson.api.element.JsonObject;
+import blue.endless.jankson.api.element.JsonPrimitive;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class JsonNumberArrayTest {
+
+    private static final JsonGrammar[] GRAMMARS = {
+            JsonGrammar.JANKSON, JsonGrammar.JSON5, JsonGrammar.STRICT, JsonGrammar.COMPACT, JsonGrammar.SEALCONFIG,
+            JsonGrammar.builder().printCommas(false).build(),
+            JsonGrammar.builder().printCommas(false).printWhitespace(false).build(),
+            JsonGrammar.builder().printTrailingCommas(true).printWhitespace(false).build()
+    };
+
+    @Test
+    public void valuesAreConverted() {
+        JsonNumberArray decimals = JsonNumberArray.ofDoubles(new double[] {0.5, 1.5, 0}, 2);
+        assertEquals(2, decimals.length());
+        assertTrue(decimals.isDecimal());
+        assertArrayEquals(new int[] {0, 1}, (int[]) decimals.toPrimitiveArray(int[].class));
+        assertArrayEquals(new long[] {0, 1}, (long[]) decimals.toPrimitiveArray(long[].class));
+        assertArrayEquals(new double[] {0.5, 1.5}, (double[]) decimals.toPrimitiveArray(double[].class), 0);
+
+        JsonNumberArray integers = JsonNumberArray.ofLongs(new long[] {-1, Long.MAX_VALUE}, 2);
+        assertFalse(integers.isDecimal());
+        assertArrayEquals(new long[] {-1, Long.MAX_VALUE}, (long[]) integers.toPrimitiveArray(long[].class));
+        assertArrayEquals(new double[] {-1, Long.MAX_VALUE}, (double[]) integers.toPrimitiveArray(double[].class), 0);
+    }
+
+    @Test
+    public void arraysAreWrittenLikeJsonArrays() throws IOException {
+        JsonNumberArray[] arrays = {
+                JsonNumberArray.ofLongs(new long[] {7}, 1),
+                JsonNumberArray.ofLongs(new long[] {1, -20, Long.MIN_VALUE, 0}, 4),
+                JsonNumberArray.ofDoubles(new double[] {0.5, -1e30, Double.NaN}, 3)
+        };
+        for(JsonGrammar grammar : GRAMMARS) {
+            for(JsonNumberArray array : arrays) {
+                for(int depth = 0; depth < 3; depth++) {
+                    assertEquals(toJson(array.toJsonArray(), grammar, depth), toJson(array, grammar, depth));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void plainTreesHaveNoNumberArrays() {
+        JsonObject tree = new JsonObject();
+        tree.put("name", new JsonPrimitive("Seal"), "A comment");
+        JsonArray list = new JsonArray();
+        list.add(JsonNumberArray.ofLongs(new long[] {1, 2}, 2), "Inner");
+        tree.put("list", list, null);
+        JsonObject category = new JsonObject();
+        category.put("doubles", JsonNumberArray.ofDoubles(new double[] {0.5}, 1), null);
+        tree.put("category", category, null);
+
+        JsonObject plain = (JsonObject) JsonNumberArray.plain(tree);
+        assertNotSame(tree, plain);
+        assertSame(tree.get("name"), plain.get("name"));
+        assertEquals("A comment", plain.getComment("name"));
+        assertEquals("Inner", ((JsonArray) plain.get("list")).getComment(0));
+        assertNoNumberArrays(plain);
+
+        //Trees without number arrays are not copied
+        assertSame(plain, JsonNumberArray.plain(plain));
+    }
+
+    private static void assertNoNumberArrays(JsonElement element) {
+        assertFalse(element instanceof JsonNumberArray);
+        if(element instanceof JsonObject) for(JsonElement value : ((JsonObject) element).values()) assertNoNumberArrays(value);
+        if(element instanceof JsonArray) for(JsonElement value : (JsonArray) element) assertNoNumberArrays(value);
+    }
+
+    private static String toJson(JsonArray array, JsonGrammar grammar, int depth) throws IOException {
+        StringWriter writer = new StringWriter();
+        array.toJson(writer, grammar, depth);
+        return writer.toString();
+    }
+
+}
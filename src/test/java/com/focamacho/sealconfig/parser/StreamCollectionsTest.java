@@ -0,0 +1,80 @@
+package com.focamacho.sealconfig.parser;
+
+import blue.endless.jankson.api.Jankson;
+import com.focamacho.sealconfig.SealConfig;
+import com.focamacho.sealconfig.TestConfigs.Example;
+import com.focamacho.sealconfig.TestConfigs.Holder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class StreamCollectionsTest {
+
+    private static final String HOLDER = "{\"value\": \"text\", \"names\": [\"first\"], \"after\": \"after\"}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void streamedFilesAreNotWrittenBack() throws IOException {
+        assertEquals(HOLDER, load(new JanksonParser().setStreamCollections(true), Holder.class, HOLDER).contents);
+        assertEquals(HOLDER, load(new Json5Parser(Jankson.builder().build()).setStreamCollections(true), Holder.class, HOLDER).contents);
+    }
+
+    @Test
+    public void customJanksonIsNotStreamed() throws IOException {
+        //The file is read with that Jankson, and written back like without streaming
+        Loaded<Holder> custom = load(new JanksonParser(Jankson.builder().build()).setStreamCollections(true), Holder.class, HOLDER);
+        Loaded<Holder> whole = load(new JanksonParser(), Holder.class, HOLDER);
+        assertNotEquals(HOLDER, custom.contents);
+        assertEquals(whole.contents, custom.contents);
+    }
+
+    @Test
+    public void repeatedKeysAreReadLikeTheTree() throws IOException {
+        String[] lists = {
+                "{\"names\": [\"first\", \"second\"], \"NAMES\": [\"third\"]}",
+                "{\"names\": [\"first\"], \"Names\": null}",
+                "{\"names\": [\"first\"], \"after\": \"x\", \"names\": [\"second\"]}"
+        };
+        for(String contents : lists) {
+            assertEquals(contents, load(new JanksonParser(), Holder.class, contents).config.names,
+                    load(new JanksonParser().setStreamCollections(true), Holder.class, contents).config.names);
+        }
+
+        String maps = "{\"values\": {\"a\": 5}, \"Values\": {\"c\": 3}, \"category\": {\"result\": 1}, \"CATEGORY\": {\"hi\": \"hey\"}}";
+        Example whole = load(new JanksonParser(), Example.class, maps).config;
+        Example streamed = load(new JanksonParser().setStreamCollections(true), Example.class, maps).config;
+        assertEquals(whole.values, streamed.values);
+        assertEquals(whole.category.result, streamed.category.result);
+        assertEquals(whole.category.hi, streamed.category.hi);
+    }
+
+    private <T> Loaded<T> load(JanksonParser parser, Class<T> configClass, String contents) throws IOException {
+        File file = new File(folder.newFolder(), "config.json5");
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        T config = new SealConfig(parser).getConfig(file, configClass);
+        assertNotNull(config);
+        return new Loaded<>(config, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private static final class Loaded<T> {
+
+        private final T config;
+        private final String contents;
+
+        private Loaded(T config, String contents) {
+            this.config = config;
+            this.contents = contents;
+        }
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.focamacho.sealconfig.parser;
+
+import org.apache.commons.text.translate.UnicodeUnescaper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the {@link UnicodeUnescapingWriter} with the
+ * commons-text UnicodeUnescaper the config files were
+ * written with before, writing the text in one piece and
+ * split at every position.
+ */
+public class UnicodeUnescapingWriterTest {
+
+    private static final UnicodeUnescaper unicodeUnescaper = new UnicodeUnescaper();
+
+    @Test
+    public void escapesAreWrittenLikeUnicodeUnescaper() throws IOException {
+        String[] texts = {
+                "",
+                "plain text",
+                "\"name\": \"Foca\\u00e7a\"",
+                "\\u0041\\u00E7\\u4e2d\\ud83d\\ude00",
+                "\\uu0041 \\uuu+0042 \\u+0043",
+                "\\\\u0041",
+                "back\\slash \\n \\t \\",
+                "\\u-123",
+                "// Comment \\u0020 at the end\\u0021"
+        };
+        for(String text : texts) assertUnescaped(text, unicodeUnescaper.translate(text));
+    }
+
+    @Test
+    public void invalidEscapesAreWrittenAsTheyAre() throws IOException {
+        //UnicodeUnescaper throws for these, so the file couldn't be written at all
+        String[] texts = {"\\u00g1 text", "\\uzzzz", "short \\u12", "\\u"};
+        for(String text : texts) {
+            try {
+                unicodeUnescaper.translate(text);
+                fail("UnicodeUnescaper accepted " + text);
+            } catch(IllegalArgumentException ignored) {}
+            assertUnescaped(text, text);
+        }
+    }
+
+    /**
+     * Checks the writer writes the expected text, whether
+     * the text is written in one piece or in two.
+     */
+    private static void assertUnescaped(String text, String expected) throws IOException {
+        assertEquals(text, expected, unescape(text, text.length()));
+        for(int split = 0; split < text.length(); split++) {
+            assertEquals(text + " split at " + split, expected, unescape(text, split));
+        }
+    }
+
+    private static String unescape(String text, int split) throws IOException {
+        StringWriter out = new StringWriter();
+        try(UnicodeUnescapingWriter writer = new UnicodeUnescapingWriter(out)) {
+            writer.write(text, 0, split);
+            writer.write(text.toCharArray(), split, text.length() - split);
+        }
+        return out.toString();
+    }
+
+}